@@ -0,0 +1,41 @@
+package com.europace.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+
+/**
+ * Runs the JMH benchmarks and, unless a result file is given with {@code -rff}, writes the results
+ * as JSON to {@code <result-dir>/jmh-result-<timestamp>.json} so runs can be compared with each other.
+ *
+ * <p>Usage: {@code BenchmarkRunner [result-dir] [jmh options] [benchmark regexp]}
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {}
+
+    public static void main(String[] args) throws Exception {
+        Path resultDir = Path.of(args.length > 0 && !args[0].startsWith("-") ? args[0] : "target/jmh");
+        String[] jmhArgs = args.length > 0 && !args[0].startsWith("-")
+                ? Arrays.copyOfRange(args, 1, args.length)
+                : args;
+
+        CommandLineOptions commandLine = new CommandLineOptions(jmhArgs);
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+        if (!commandLine.getResult().hasValue()) {
+            Files.createDirectories(resultDir);
+            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+            options.resultFormat(ResultFormatType.JSON)
+                    .result(resultDir.resolve("jmh-result-" + timestamp + ".json").toString());
+        }
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,85 @@
+package com.europace.benchmarks;
+
+import com.europace.userservice.service.PasswordHasherBusyException;
+import com.europace.userservice.service.UserService;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Successful logins from 32 concurrent callers against the bounded password hashing pool. The
+ * {@code accepted} and {@code rejected} counters show how many logins were served and how many were
+ * turned away with {@link PasswordHasherBusyException} once the queue was full; the primary score counts both.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(32)
+@Fork(1)
+public class LoginThroughputBenchmark {
+
+    @Param({"10", "12"})
+    public int cost;
+
+    @Param({"8", "64"})
+    public int queueCapacity;
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+
+    @Setup
+    public void setUp() {
+        context = ServiceContexts.startUserService("user-login-throughput",
+                "password.hash.cost=" + cost,
+                "password.hash.queue-capacity=" + queueCapacity);
+        userService = context.getBean(UserService.class);
+        userService.registerUser("benchmark", "password123");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Outcomes {
+        public long accepted;
+        public long rejected;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            accepted = 0;
+            rejected = 0;
+        }
+    }
+
+    @Benchmark
+    public Object login(Outcomes outcomes) {
+        try {
+            Object result = userService.authenticateUser("benchmark", "password123");
+            outcomes.accepted++;
+            return result;
+        } catch (PasswordHasherBusyException e) {
+            outcomes.rejected++;
+            return e;
+        }
+    }
+}
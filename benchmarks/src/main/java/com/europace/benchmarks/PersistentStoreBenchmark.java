@@ -0,0 +1,107 @@
+package com.europace.benchmarks;
+
+import com.europace.todo.service.dto.TodoResponse;
+import com.europace.todo.service.service.TodoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * todo-service on the file-backed store of the {@code persistent} profile, holding {@code tableRows} todos.
+ * The store is created once under {@code target/persistent-store} and reused by later runs, because seeding
+ * ten million rows takes minutes.
+ *
+ * <ul>
+ *     <li>{@code coldStart}: time to open the existing store and start the application context</li>
+ *     <li>{@code getUserTodos}: read latency for one user's todos once the store is open</li>
+ * </ul>
+ */
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class PersistentStoreBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Store {
+
+        @Param({"10000000"})
+        public int tableRows;
+
+        Path path;
+
+        @Setup(Level.Trial)
+        public void createIfMissing() {
+            path = Path.of("target", "persistent-store", "todos-" + tableRows).toAbsolutePath();
+            if (Files.exists(path.resolveSibling(path.getFileName() + ".mv.db"))) {
+                return;
+            }
+            try (ConfigurableApplicationContext context = start()) {
+                TodoServiceBenchmark.seed(context.getBean(JdbcTemplate.class), tableRows);
+            }
+        }
+
+        ConfigurableApplicationContext start() {
+            return ServiceContexts.startTodoService("unused",
+                    "spring.datasource.url=jdbc:h2:file:" + path + ";CACHE_SIZE=65536;WRITE_DELAY=500;"
+                            + "MAX_COMPACT_TIME=0;DB_CLOSE_ON_EXIT=FALSE",
+                    "spring.jpa.hibernate.ddl-auto=none",
+                    "spring.jpa.properties.hibernate.boot.allow_jdbc_metadata_access=false",
+                    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                    "spring.sql.init.mode=always",
+                    "spring.sql.init.schema-locations=classpath:db/todo-schema.sql");
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class OpenStore {
+
+        ConfigurableApplicationContext context;
+        TodoService todoService;
+        String token;
+
+        @Setup(Level.Trial)
+        public void open(Store store) {
+            context = store.start();
+            todoService = context.getBean(TodoService.class);
+            token = ServiceContexts.tokenFor(TodoServiceBenchmark.USER_ID);
+        }
+
+        @TearDown(Level.Trial)
+        public void close() {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 5)
+    public void coldStart(Store store) {
+        store.start().close();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    public List<TodoResponse> getUserTodos(OpenStore store) {
+        return store.todoService.getUserTodos(store.token);
+    }
+}
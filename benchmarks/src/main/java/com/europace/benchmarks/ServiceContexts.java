@@ -0,0 +1,59 @@
+package com.europace.benchmarks;
+
+import com.europace.todo.service.TodoServiceApplication;
+import com.europace.userservice.UserServiceApplication;
+import com.europace.userservice.service.JwtService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Starts the real service application contexts, without a web server, on a private in-memory H2 database.
+ * Both services ship an {@code application.properties}, so the benchmark contexts ignore them and get
+ * their configuration from here instead.
+ */
+final class ServiceContexts {
+
+    static final String JWT_SECRET = "mySecretKey123456789mySecretKey123456789";
+    static final long JWT_EXPIRATION = 86400000L;
+
+    private ServiceContexts() {}
+
+    /**
+     * Issues a token the way user-service does on login.
+     */
+    static String tokenFor(Long userId) {
+        return new JwtService(JWT_SECRET, JWT_EXPIRATION, new SimpleMeterRegistry()).generateToken(userId);
+    }
+
+    static ConfigurableApplicationContext startTodoService(String database, String... properties) {
+        return start(TodoServiceApplication.class, database, properties);
+    }
+
+    static ConfigurableApplicationContext startUserService(String database, String... properties) {
+        return start(UserServiceApplication.class, database, properties);
+    }
+
+    private static ConfigurableApplicationContext start(Class<?> application, String database, String... properties) {
+        List<String> all = new ArrayList<>(List.of(
+                "spring.config.name=benchmark",
+                "spring.main.banner-mode=off",
+                "logging.level.root=WARN",
+                "spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1",
+                "spring.datasource.driver-class-name=org.h2.Driver",
+                "spring.jpa.hibernate.ddl-auto=update",
+                "spring.jpa.properties.hibernate.jdbc.batch_size=100",
+                "spring.jpa.properties.hibernate.order_inserts=true",
+                "jwt.secret=" + JWT_SECRET,
+                "jwt.expiration=" + JWT_EXPIRATION));
+        all.addAll(List.of(properties));
+        return new SpringApplicationBuilder(application)
+                .web(WebApplicationType.NONE)
+                .properties(all.toArray(String[]::new))
+                .run();
+    }
+}
@@ -0,0 +1,70 @@
+package com.europace.benchmarks;
+
+import com.europace.todo.service.entity.Todo;
+import com.europace.todo.service.service.TodoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows per second persisted by {@code TodoService.createTodo} called once per todo (the
+ * {@code POST /todos} path) versus {@code TodoService.createTodos} (the {@code POST /todos/batch} path).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TodoCreateBenchmark {
+
+    private static final int ROWS = 1000;
+
+    private ConfigurableApplicationContext context;
+    private TodoService todoService;
+    private String token;
+    private List<String> texts;
+
+    @Setup
+    public void setUp() {
+        context = ServiceContexts.startTodoService("todo-create");
+        todoService = context.getBean(TodoService.class);
+        token = ServiceContexts.tokenFor(1L);
+        texts = Collections.nCopies(ROWS, "Imported todo");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public Todo createOneByOne() {
+        Todo last = null;
+        for (String text : texts) {
+            last = todoService.createTodo(text, token);
+        }
+        return last;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<Todo> createBatch() {
+        return todoService.createTodos(texts, token);
+    }
+}
@@ -0,0 +1,52 @@
+package com.europace.benchmarks;
+
+import com.europace.todo.service.dto.TodoResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * JSON serialization of the {@code GET /todos} response body with an object mapper configured like Spring MVC's.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TodoJsonBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int todos;
+
+    private ObjectWriter writer;
+    private List<TodoResponse> response;
+
+    @Setup
+    public void setUp() {
+        writer = Jackson2ObjectMapperBuilder.json().build().writer();
+        response = LongStream.rangeClosed(1, todos)
+                .mapToObj(id -> new TodoResponse(id, "Todo number " + id, 1L))
+                .toList();
+    }
+
+    @Benchmark
+    public byte[] serializeTodoList() throws JsonProcessingException {
+        return writer.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,94 @@
+package com.europace.benchmarks;
+
+import com.europace.todo.service.dto.TodoResponse;
+import com.europace.todo.service.service.TodoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads of one user's todos through {@link TodoService} against an H2 table of {@code tableRows} todos.
+ * The benchmarked user always owns {@value #USER_TODOS} of them; the rest belong to other users,
+ * so the numbers show how lookup cost depends on the size of the shared table. With {@code listCache}
+ * the full-list read is answered from the per-user list cache after the first call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class TodoServiceBenchmark {
+
+    static final int USER_TODOS = 100;
+    static final long USER_ID = 1L;
+    private static final int OTHER_USERS = 1000;
+    private static final int INSERT_CHUNK = 10_000;
+
+    @Param({"1000", "100000", "1000000"})
+    public int tableRows;
+
+    @Param({"false", "true"})
+    public boolean listCache;
+
+    private ConfigurableApplicationContext context;
+    private TodoService todoService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        context = ServiceContexts.startTodoService("todo-read-" + tableRows + "-" + listCache,
+                "todo.cache.enabled=" + listCache);
+        todoService = context.getBean(TodoService.class);
+        seed(context.getBean(JdbcTemplate.class), tableRows);
+        token = ServiceContexts.tokenFor(USER_ID);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<TodoResponse> getUserTodos() {
+        return todoService.getUserTodos(token);
+    }
+
+    @Benchmark
+    public List<TodoResponse> getUserTodosFirstPage() {
+        return todoService.getUserTodos(token, null, 20);
+    }
+
+    /**
+     * Inserts the rows with plain JDBC batches and moves the id sequence past them.
+     * Every {@code tableRows / USER_TODOS}-th row belongs to the benchmarked user.
+     */
+    static void seed(JdbcTemplate jdbcTemplate, int rows) {
+        int userEvery = Math.max(1, rows / USER_TODOS);
+        List<Object[]> chunk = new ArrayList<>(INSERT_CHUNK);
+        for (long id = 1; id <= rows; id++) {
+            long userId = id % userEvery == 0 ? USER_ID : 2 + id % OTHER_USERS;
+            chunk.add(new Object[]{id, "Todo number " + id, userId, id});
+            if (chunk.size() == INSERT_CHUNK || id == rows) {
+                jdbcTemplate.batchUpdate("insert into todos (id, text, user_id, change_seq) values (?, ?, ?, ?)", chunk);
+                chunk.clear();
+            }
+        }
+        jdbcTemplate.execute("alter sequence todos_seq restart with " + (rows + 1000));
+    }
+}
@@ -0,0 +1,69 @@
+package com.europace.benchmarks;
+
+import com.europace.userservice.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login through {@link UserService#authenticateUser} for a known user, a wrong password and an unknown user,
+ * with BCrypt cost 4 (close to the bare lookup) and 10, and with and without the username filter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserServiceBenchmark {
+
+    @Param({"4", "10"})
+    public int cost;
+
+    @Param({"true", "false"})
+    public boolean usernameFilter;
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+
+    @Setup
+    public void setUp() {
+        context = ServiceContexts.startUserService("user-login",
+                "password.hash.cost=" + cost,
+                "username-filter.enabled=" + usernameFilter);
+        userService = context.getBean(UserService.class);
+        userService.registerUser("benchmark", "password123");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object authenticateUser() {
+        return userService.authenticateUser("benchmark", "password123");
+    }
+
+    @Benchmark
+    public Object authenticateUserWrongPassword() {
+        return userService.authenticateUser("benchmark", "wrong");
+    }
+
+    @Benchmark
+    public Object authenticateUnknownUser() {
+        return userService.authenticateUser("nobody", "password123");
+    }
+}
@@ -0,0 +1,96 @@
+package com.europace.loadgen;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and response codes of one endpoint. Latencies go into an HDR histogram with microsecond
+ * resolution, recorded without locks from any number of threads.
+ */
+final class EndpointStats {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+    private static final String[] PERCENTILE_NAMES = {"p50", "p90", "p99", "p99.9"};
+
+    private final String name;
+    private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Histogram total = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final ConcurrentMap<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    private final LongAdder errors = new LongAdder();
+
+    EndpointStats(String name) {
+        this.name = name;
+    }
+
+    String name() {
+        return name;
+    }
+
+    void record(int status, long latencyNanos) {
+        recorder.recordValue(Math.min(HIGHEST_TRACKABLE_MICROS, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+        statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+    }
+
+    /**
+     * Counts a request that got no response (connection failure or timeout).
+     */
+    void recordError() {
+        errors.increment();
+    }
+
+    /**
+     * Latencies recorded since the previous call, for a timeline. They still count towards {@link #summarize}.
+     */
+    synchronized Histogram interval() {
+        Histogram interval = recorder.getIntervalHistogram();
+        total.add(interval);
+        return interval;
+    }
+
+    /**
+     * Forgets everything recorded so far, for example at the end of the warm-up.
+     */
+    synchronized void discard() {
+        recorder.reset();
+        total.reset();
+        statuses.values().forEach(LongAdder::reset);
+        errors.reset();
+    }
+
+    /**
+     * Summarizes everything recorded since the last {@link #discard()} over a window of {@code seconds}.
+     */
+    synchronized Map<String, Object> summarize(double seconds) {
+        interval();
+        Histogram histogram = total;
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", histogram.getTotalCount());
+        summary.put("errors", errors.sum());
+        summary.put("throughput", seconds > 0 ? histogram.getTotalCount() / seconds : 0.0);
+        Map<String, Long> byStatus = new TreeMap<>();
+        statuses.forEach((status, count) -> {
+            if (count.sum() > 0) {
+                byStatus.put(String.valueOf(status), count.sum());
+            }
+        });
+        summary.put("statuses", byStatus);
+
+        Map<String, Double> latency = new LinkedHashMap<>();
+        latency.put("mean", histogram.getMean() / 1000.0);
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            latency.put(PERCENTILE_NAMES[i], histogram.getValueAtPercentile(PERCENTILES[i]) / 1000.0);
+        }
+        latency.put("max", histogram.getMaxValue() / 1000.0);
+        summary.put("latencyMs", latency);
+        return summary;
+    }
+}
@@ -0,0 +1,327 @@
+package com.europace.loadgen;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives user-service and todo-service end to end. Every virtual user registers and logs in, then the
+ * workload mixes {@code GET /todos} (share {@code read-ratio}) and {@code POST /todos} for the configured
+ * duration after a warm-up whose requests are not counted:
+ * <ul>
+ *   <li>{@code --model=closed}: {@code users} virtual users on virtual threads, each waiting for its response
+ *       and an exponentially distributed think time (mean {@code think-time-ms}) before its next request;</li>
+ *   <li>{@code --model=open}: requests arrive at {@code rate} per second, each on behalf of a random user,
+ *       however slow the services are. At most {@code max-in-flight} requests are outstanding; arrivals beyond
+ *       that are counted as dropped.</li>
+ * </ul>
+ * Throughput and latency percentiles per endpoint are printed and written as JSON to {@code output}. With
+ * {@code report-interval-seconds}, a timeline of the workload's throughput, warm-up included, shows how long
+ * freshly started services take to reach their peak.
+ *
+ * <p>Usage: {@code java -jar load-generator-exec.jar [--name=value ...]}, see {@link LoadOptions}.
+ */
+public final class LoadGenerator {
+
+    private static final int SETUP_CONCURRENCY = 32;
+    private static final int SETUP_ATTEMPTS = 5;
+    /** Share of the peak throughput at which the services count as warmed up. */
+    private static final double WARM_SHARE = 0.9;
+
+    private final LoadOptions options;
+    private final ServiceClient client;
+    private final AtomicLong todoCounter = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final List<Map<String, Object>> timeline = new ArrayList<>();
+
+    private LoadGenerator(LoadOptions options) {
+        this.options = options;
+        this.client = new ServiceClient(options);
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadGenerator generator = new LoadGenerator(LoadOptions.parse(args));
+        generator.run();
+    }
+
+    private void run() throws Exception {
+        String runId = UUID.randomUUID().toString().substring(0, 8);
+        System.out.printf("Registering and logging in %d users (run %s)%n", options.users, runId);
+        List<String> tokens = setUp(runId);
+        if (tokens.isEmpty()) {
+            throw new IllegalStateException("No user could log in; are both services running and reachable?");
+        }
+        System.out.printf("%d users ready, running %s workload: %ds warm-up, %ds measurement%n", tokens.size(),
+                options.model.name().toLowerCase(), options.warmup.toSeconds(), options.duration.toSeconds());
+
+        long start = System.nanoTime();
+        long measureFrom = start + options.warmup.toNanos();
+        long end = measureFrom + options.duration.toNanos();
+        ScheduledExecutorService timelineReporter = startTimeline(start);
+        if (options.model == LoadOptions.Model.CLOSED) {
+            runClosed(tokens, measureFrom, end);
+        } else {
+            runOpen(tokens, measureFrom, end);
+        }
+        if (timelineReporter != null) {
+            timelineReporter.shutdownNow();
+            timelineReporter.awaitTermination(1, TimeUnit.SECONDS);
+        }
+        double seconds = options.duration.toNanos() / 1e9;
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("timestamp", Instant.now().toString());
+        result.put("options", options.describe());
+        result.put("users", tokens.size());
+        result.put("dropped", dropped.get());
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        for (EndpointStats stats : client.all()) {
+            // Register and login only happen during set-up, so their throughput is not meaningful.
+            endpoints.put(stats.name(), stats.summarize(stats == client.createTodo || stats == client.listTodos ? seconds : 0));
+        }
+        result.put("endpoints", endpoints);
+        if (!timeline.isEmpty()) {
+            result.put("timeline", summarizeTimeline());
+        }
+        report(result);
+    }
+
+    /**
+     * Registers and logs in every user, retrying when a service answers 429 or 503.
+     *
+     * @return the tokens of the users that could log in
+     */
+    private List<String> setUp(String runId) throws InterruptedException {
+        List<String> tokens = new ArrayList<>();
+        Semaphore permits = new Semaphore(SETUP_CONCURRENCY);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < options.users; i++) {
+                String username = "load-" + runId + "-" + i;
+                String password = UUID.randomUUID().toString();
+                futures.add(executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        return registerAndLogin(username, password);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+            for (Future<String> future : futures) {
+                try {
+                    Optional.ofNullable(future.get()).ifPresent(tokens::add);
+                } catch (ExecutionException e) {
+                    System.err.println("Set-up failed: " + e.getCause());
+                }
+            }
+        }
+        return tokens;
+    }
+
+    private String registerAndLogin(String username, String password) throws InterruptedException {
+        for (int attempt = 1; attempt <= SETUP_ATTEMPTS; attempt++) {
+            HttpResponse<String> response = client.register(username, password);
+            if (response != null && (response.statusCode() == 201 || response.statusCode() == 409)) {
+                break;
+            }
+            if (attempt == SETUP_ATTEMPTS || !backOff(response)) {
+                return null;
+            }
+        }
+        for (int attempt = 1; attempt <= SETUP_ATTEMPTS; attempt++) {
+            String token = client.login(username, password);
+            if (token != null) {
+                return token;
+            }
+            Thread.sleep(TimeUnit.SECONDS.toMillis(1));
+        }
+        return null;
+    }
+
+    /**
+     * Waits for the {@code Retry-After} delay of a 429 or 503 response.
+     *
+     * @return {@code false} if the response is not worth retrying
+     */
+    private static boolean backOff(HttpResponse<String> response) throws InterruptedException {
+        if (response != null && response.statusCode() != 429 && response.statusCode() != 503) {
+            return false;
+        }
+        long seconds = response != null
+                ? response.headers().firstValue("Retry-After").map(Long::parseLong).orElse(1L)
+                : 1L;
+        Thread.sleep(TimeUnit.SECONDS.toMillis(seconds));
+        return true;
+    }
+
+    private void runClosed(List<String> tokens, long measureFrom, long end) {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (String token : tokens) {
+                executor.execute(() -> {
+                    try {
+                        while (System.nanoTime() < end) {
+                            request(token, System.nanoTime());
+                            think();
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+            sleepUntil(measureFrom);
+            discardWorkloadStats();
+        }
+    }
+
+    private void runOpen(List<String> tokens, long measureFrom, long end) {
+        long intervalNanos = Math.max(1, Math.round(1e9 / options.rate));
+        Semaphore inFlight = new Semaphore(options.maxInFlight);
+        boolean measuring = false;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long next = System.nanoTime(); next < end; next += intervalNanos) {
+                sleepUntil(next);
+                if (!measuring && next >= measureFrom) {
+                    discardWorkloadStats();
+                    measuring = true;
+                }
+                if (!inFlight.tryAcquire()) {
+                    if (measuring) {
+                        dropped.incrementAndGet();
+                    }
+                    continue;
+                }
+                String token = tokens.get(ThreadLocalRandom.current().nextInt(tokens.size()));
+                long intendedStart = next;
+                executor.execute(() -> {
+                    try {
+                        request(token, intendedStart);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Every {@code report-interval-seconds}, prints and keeps the throughput and latency of the workload since
+     * the previous interval.
+     *
+     * @return the reporter to shut down after the run, or {@code null} if no timeline is wanted
+     */
+    private ScheduledExecutorService startTimeline(long start) {
+        if (options.reportInterval.isZero()) {
+            return null;
+        }
+        long intervalNanos = options.reportInterval.toNanos();
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+        System.out.printf("%8s %10s %9s %9s%n", "second", "req/s", "p50 ms", "p99 ms");
+        reporter.scheduleAtFixedRate(() -> {
+            Histogram interval = client.createTodo.interval();
+            interval.add(client.listTodos.interval());
+            Map<String, Object> point = new LinkedHashMap<>();
+            point.put("second", Math.round((System.nanoTime() - start) / 1e9));
+            point.put("throughput", interval.getTotalCount() / (intervalNanos / 1e9));
+            point.put("p50Ms", interval.getValueAtPercentile(50) / 1000.0);
+            point.put("p99Ms", interval.getValueAtPercentile(99) / 1000.0);
+            timeline.add(point);
+            System.out.printf("%8d %10.1f %9.2f %9.2f%n", (Long) point.get("second"), (Double) point.get("throughput"),
+                    (Double) point.get("p50Ms"), (Double) point.get("p99Ms"));
+        }, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+        return reporter;
+    }
+
+    private Map<String, Object> summarizeTimeline() {
+        double peak = timeline.stream().mapToDouble(point -> (Double) point.get("throughput")).max().orElse(0);
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("intervalSeconds", options.reportInterval.toSeconds());
+        summary.put("peakThroughput", peak);
+        summary.put("secondsTo90PercentOfPeak", timeline.stream()
+                .filter(point -> (Double) point.get("throughput") >= WARM_SHARE * peak)
+                .findFirst()
+                .map(point -> point.get("second"))
+                .orElse(null));
+        summary.put("intervals", timeline);
+        return summary;
+    }
+
+    private void request(String token, long intendedStartNanos) throws InterruptedException {
+        if (ThreadLocalRandom.current().nextDouble() < options.readRatio) {
+            client.listTodos(token, intendedStartNanos);
+        } else {
+            client.createTodo(token, "Load test todo " + todoCounter.incrementAndGet(), intendedStartNanos);
+        }
+    }
+
+    private void think() throws InterruptedException {
+        long meanMillis = options.thinkTime.toMillis();
+        if (meanMillis > 0) {
+            double sample = -Math.log(1 - ThreadLocalRandom.current().nextDouble()) * meanMillis;
+            Thread.sleep(Math.round(sample));
+        }
+    }
+
+    private void discardWorkloadStats() {
+        client.createTodo.discard();
+        client.listTodos.discard();
+    }
+
+    private static void sleepUntil(long deadlineNanos) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void report(Map<String, Object> result) throws Exception {
+        System.out.printf("%n%-16s %9s %7s %10s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map.Entry<String, Object> entry : ((Map<String, Object>) result.get("endpoints")).entrySet()) {
+            Map<String, Object> stats = (Map<String, Object>) entry.getValue();
+            Map<String, Double> latency = (Map<String, Double>) stats.get("latencyMs");
+            System.out.printf("%-16s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f  %s%n", entry.getKey(),
+                    (Long) stats.get("requests"), (Long) stats.get("errors"), (Double) stats.get("throughput"),
+                    latency.get("p50"), latency.get("p90"), latency.get("p99"), latency.get("p99.9"),
+                    latency.get("max"), stats.get("statuses"));
+        }
+        Map<String, Object> timelineSummary = (Map<String, Object>) result.get("timeline");
+        if (timelineSummary != null) {
+            System.out.printf("Peak throughput %.1f req/s, 90%% of it reached after %s s%n",
+                    (Double) timelineSummary.get("peakThroughput"), timelineSummary.get("secondsTo90PercentOfPeak"));
+        }
+        if (dropped.get() > 0) {
+            System.out.printf("%d arrivals dropped because %d requests were already in flight%n",
+                    dropped.get(), options.maxInFlight);
+        }
+
+        if (options.output.getParent() != null) {
+            Files.createDirectories(options.output.getParent());
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(options.output.toFile(), result);
+        System.out.println("Results written to " + options.output.toAbsolutePath());
+    }
+}
@@ -0,0 +1,103 @@
+package com.europace.loadgen;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Command line options of the {@link LoadGenerator}, given as {@code --name=value}.
+ */
+final class LoadOptions {
+
+    enum Model {
+        /** A fixed number of virtual users, each sending its next request after the previous one and a think time. */
+        CLOSED,
+        /** Requests arrive at a fixed rate regardless of how fast the services answer. */
+        OPEN
+    }
+
+    final URI userServiceUrl;
+    final URI todoServiceUrl;
+    final Model model;
+    final int users;
+    final double rate;
+    final int maxInFlight;
+    final Duration thinkTime;
+    final double readRatio;
+    final Duration warmup;
+    final Duration duration;
+    final Duration timeout;
+    final Duration reportInterval;
+    final Path output;
+
+    private LoadOptions(Map<String, String> values) {
+        this.userServiceUrl = URI.create(take(values, "user-service", "http://localhost:8081"));
+        this.todoServiceUrl = URI.create(take(values, "todo-service", "http://localhost:8082"));
+        this.model = Model.valueOf(take(values, "model", "closed").toUpperCase());
+        this.users = Integer.parseInt(take(values, "users", "50"));
+        this.rate = Double.parseDouble(take(values, "rate", "200"));
+        this.maxInFlight = Integer.parseInt(take(values, "max-in-flight", "10000"));
+        this.thinkTime = Duration.ofMillis(Long.parseLong(take(values, "think-time-ms", "100")));
+        this.readRatio = Double.parseDouble(take(values, "read-ratio", "0.8"));
+        this.warmup = Duration.ofSeconds(Long.parseLong(take(values, "warmup-seconds", "10")));
+        this.duration = Duration.ofSeconds(Long.parseLong(take(values, "duration-seconds", "60")));
+        this.timeout = Duration.ofSeconds(Long.parseLong(take(values, "timeout-seconds", "10")));
+        this.reportInterval = Duration.ofSeconds(Long.parseLong(take(values, "report-interval-seconds", "0")));
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        this.output = Path.of(take(values, "output", "target/load/load-result-" + timestamp + ".json"));
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options: " + values.keySet());
+        }
+        if (users < 1 || rate <= 0 || maxInFlight < 1 || readRatio < 0 || readRatio > 1) {
+            throw new IllegalArgumentException("users, rate and max-in-flight must be positive and read-ratio within [0, 1]");
+        }
+        if (reportInterval.isNegative()) {
+            throw new IllegalArgumentException("report-interval-seconds must not be negative");
+        }
+    }
+
+    static LoadOptions parse(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return new LoadOptions(values);
+    }
+
+    /**
+     * The options as written to the result file.
+     */
+    Map<String, Object> describe() {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("userService", userServiceUrl.toString());
+        description.put("todoService", todoServiceUrl.toString());
+        description.put("model", model.name().toLowerCase());
+        description.put("users", users);
+        if (model == Model.OPEN) {
+            description.put("rate", rate);
+            description.put("maxInFlight", maxInFlight);
+        } else {
+            description.put("thinkTimeMs", thinkTime.toMillis());
+        }
+        description.put("readRatio", readRatio);
+        description.put("warmupSeconds", warmup.toSeconds());
+        description.put("durationSeconds", duration.toSeconds());
+        if (!reportInterval.isZero()) {
+            description.put("reportIntervalSeconds", reportInterval.toSeconds());
+        }
+        return description;
+    }
+
+    private static String take(Map<String, String> values, String name, String defaultValue) {
+        String value = values.remove(name);
+        return value != null ? value : defaultValue;
+    }
+}
@@ -0,0 +1,113 @@
+package com.europace.loadgen;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+/**
+ * Calls the endpoints of both services and records every call in the matching {@link EndpointStats}.
+ * Latency is measured from {@code intendedStartNanos}, so in the open model time spent waiting for a
+ * free connection or behind a slow request counts against the service (no coordinated omission).
+ */
+final class ServiceClient {
+
+    final EndpointStats register = new EndpointStats("POST /register");
+    final EndpointStats login = new EndpointStats("POST /login");
+    final EndpointStats createTodo = new EndpointStats("POST /todos");
+    final EndpointStats listTodos = new EndpointStats("GET /todos");
+
+    private final HttpClient http;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final URI userServiceUrl;
+    private final URI todoServiceUrl;
+    private final Duration timeout;
+
+    ServiceClient(LoadOptions options) {
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(options.timeout)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        this.userServiceUrl = options.userServiceUrl;
+        this.todoServiceUrl = options.todoServiceUrl;
+        this.timeout = options.timeout;
+    }
+
+    List<EndpointStats> all() {
+        return List.of(register, login, createTodo, listTodos);
+    }
+
+    /**
+     * @return the response, or {@code null} if the request failed without a response
+     */
+    HttpResponse<String> register(String username, String password) throws InterruptedException {
+        return send(register, post(userServiceUrl.resolve("/register"), null,
+                Map.of("username", username, "password", password)), System.nanoTime());
+    }
+
+    /**
+     * @return the token, or {@code null} if the login failed
+     */
+    String login(String username, String password) throws InterruptedException {
+        HttpResponse<String> response = send(login, post(userServiceUrl.resolve("/login"), null,
+                Map.of("username", username, "password", password)), System.nanoTime());
+        if (response == null || response.statusCode() != 200) {
+            return null;
+        }
+        try {
+            JsonNode body = objectMapper.readTree(response.body());
+            return body.path("token").asText(null);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    void createTodo(String token, String text, long intendedStartNanos) throws InterruptedException {
+        send(createTodo, post(todoServiceUrl.resolve("/todos"), token, Map.of("text", text)), intendedStartNanos);
+    }
+
+    void listTodos(String token, long intendedStartNanos) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(todoServiceUrl.resolve("/todos"))
+                .timeout(timeout)
+                .header("Authorization", "Bearer " + token)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+        send(listTodos, request, intendedStartNanos);
+    }
+
+    private HttpRequest post(URI uri, String token, Map<String, String> body) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+                .timeout(timeout)
+                .header("Content-Type", "application/json");
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        try {
+            return builder.POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body))).build();
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot serialize request body", e);
+        }
+    }
+
+    private HttpResponse<String> send(EndpointStats stats, HttpRequest request, long intendedStartNanos)
+            throws InterruptedException {
+        try {
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            stats.record(response.statusCode(), System.nanoTime() - intendedStartNanos);
+            return response;
+        } catch (IOException e) {
+            stats.recordError();
+            return null;
+        }
+    }
+}
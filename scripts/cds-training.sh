@@ -0,0 +1,130 @@
+#!/usr/bin/env bash
+#
+# Training run for the fast-start JVM layout of a service. <dir> holds the service's own classes as
+# application.jar next to its dependencies in BOOT-INF/lib (see the Dockerfiles). The script writes
+#
+#   app.args  class path and main class, for `java @app.args`
+#   app.jsa   a dynamic class-data-sharing (AppCDS) archive of every class loaded while the service starts
+#             with Spring AOT and serves one round of requests to each of its endpoints
+#
+# Start the service from <dir> with:
+#
+#   java -XX:SharedArchiveFile=app.jsa -Dspring.aot.enabled=true @app.args
+#
+# The archive is only used with the same JDK and the same class path, so it is created where it runs.
+#
+# Usage: scripts/cds-training.sh <user-service|todo-service> <dir>
+
+set -euo pipefail
+
+SERVICE="${1:-}"
+DIR="${2:-}"
+JWT_SECRET="${JWT_SECRET:-mySecretKey123456789mySecretKey123456789}"
+TIMEOUT_SECONDS="${TIMEOUT_SECONDS:-300}"
+
+case "$SERVICE" in
+  user-service)
+    MAIN_CLASS=com.europace.userservice.UserServiceApplication
+    PORT="${TRAINING_PORT:-18091}"
+    ;;
+  todo-service)
+    MAIN_CLASS=com.europace.todo.service.TodoServiceApplication
+    PORT="${TRAINING_PORT:-18092}"
+    ;;
+  *)
+    echo "Usage: $0 <user-service|todo-service> <dir>" >&2
+    exit 1
+    ;;
+esac
+
+cd "$DIR"
+if [[ ! -f application.jar || ! -f BOOT-INF/classpath.idx ]]; then
+  echo "$DIR does not contain application.jar and BOOT-INF/classpath.idx" >&2
+  exit 1
+fi
+
+# CDS only archives classes loaded from jars, and checks the class path on every start. Relative paths keep
+# the archive valid as long as the service is started from this directory.
+{
+  printf -- '-cp application.jar'
+  sed -n 's/^- "\(.*\)"$/\1/p' BOOT-INF/classpath.idx | while read -r jar; do printf ':%s' "$jar"; done
+  printf '\n%s\n' "$MAIN_CLASS"
+} > app.args
+
+rm -f app.jsa
+java -XX:ArchiveClassesAtExit=app.jsa -Dspring.aot.enabled=true @app.args \
+  --server.port="$PORT" > training.log 2>&1 &
+PID=$!
+
+base="http://localhost:$PORT"
+started=$(date +%s)
+until curl -sf -o /dev/null "$base/actuator/health"; do
+  if ! kill -0 "$PID" 2>/dev/null || (( $(date +%s) - started > TIMEOUT_SECONDS )); then
+    echo "$SERVICE did not become healthy; see $DIR/training.log" >&2
+    kill "$PID" 2>/dev/null || true
+    exit 1
+  fi
+  sleep 1
+done
+
+json() {
+  curl -s -o /dev/null -X "$1" "$base$2" -H 'Content-Type: application/json' "${@:4}" -d "$3" || true
+}
+
+get() {
+  curl -s -o /dev/null --max-time 2 "$base$1" "${@:2}" || true
+}
+
+b64url() {
+  openssl base64 -A | tr '+/' '-_' | tr -d '='
+}
+
+# Stays within the default admission limits, so every request reaches its controller.
+case "$SERVICE" in
+  user-service)
+    for i in 1 2 3; do
+      json POST /register "{\"username\":\"training-$i\",\"password\":\"training\"}"
+      json POST /login "{\"username\":\"training-$i\",\"password\":\"training\"}"
+    done
+    json POST /login '{"username":"training-1","password":"wrong"}'
+    json POST /register '{"username":"","password":""}'
+    token=$(curl -s -X POST "$base/login" -H 'Content-Type: application/json' \
+      -d '{"username":"training-1","password":"training"}' | sed -n 's/.*"token":"\([^"]*\)".*/\1/p')
+    for _ in 1 2 3; do
+      json POST /token "{\"token\":\"$token\"}"
+    done
+    json POST /token '{"token":"invalid"}'
+    json POST /token/batch "[\"$token\",\"invalid\",\"$token\"]"
+    ;;
+  todo-service)
+    # A token as user-service would issue it, signed with the shared secret
+    now=$(date +%s)
+    header=$(printf '{"alg":"HS256"}' | b64url)
+    payload=$(printf '{"sub":"1","iat":%d,"exp":%d}' "$now" $(( now + 3600 )) | b64url)
+    signature=$(printf '%s.%s' "$header" "$payload" | openssl dgst -sha256 -hmac "$JWT_SECRET" -binary | b64url)
+    auth=(-H "Authorization: Bearer $header.$payload.$signature")
+    for i in 1 2 3; do
+      json POST /todos "{\"text\":\"Training todo $i\"}" "${auth[@]}"
+      json POST /todos/batch "[{\"text\":\"Training batch $i a\"},{\"text\":\"Training batch $i b\"}]" "${auth[@]}"
+      get /todos "${auth[@]}"
+      get "/todos?limit=2" "${auth[@]}"
+      get /todos "${auth[@]}" -H 'Accept: application/x-ndjson'
+      get "/todos/changes?since=0" "${auth[@]}"
+    done
+    get /todos/stream "${auth[@]}"
+    get /todos -H 'Authorization: Bearer invalid'
+    json POST /todos '{"text":""}' "${auth[@]}"
+    ;;
+esac
+get /openapi.json -H 'Accept-Encoding: gzip'
+get /actuator/prometheus
+
+# The archive is written when the JVM exits
+kill -TERM "$PID"
+wait "$PID" || true
+if [[ ! -s app.jsa ]]; then
+  echo "No archive was written; see $DIR/training.log" >&2
+  exit 1
+fi
+rm -f training.log
+echo "$SERVICE: archived $(du -h app.jsa | cut -f1) of classes in $DIR/app.jsa"
@@ -0,0 +1,183 @@
+#!/usr/bin/env bash
+#
+# Measures how long user-service and todo-service take from launch until the first successful GET /todos
+# (register, then list todos with the returned token), and the resident memory (RSS) of both processes at
+# that moment. Modes:
+#
+#   jvm     the executable jars
+#   aot     the executable jars with the Spring AOT-processed startup (-Dspring.aot.enabled=true)
+#   cds     aot plus a class-data-sharing archive from a training run (scripts/cds-training.sh), as in the
+#           Docker images; prepared under target/cds/ on first use
+#   native  the GraalVM native executables of the `native` Maven profile
+#
+# Usage: [LOAD_SECONDS=60] scripts/startup-benchmark.sh [jvm|aot|cds|native] [runs]
+#
+#   mvn -DskipTests package               # JVM jars:           */target/*-exec.jar
+#   mvn -Pnative -DskipTests package      # native executables: */target/user-service, */target/todo-service
+#
+# With LOAD_SECONDS, every run continues with the load generator against the freshly started services for
+# that long, without warm-up and with a throughput timeline every LOAD_INTERVAL seconds (default 5), to show
+# how long each mode takes to reach its peak throughput. The load starts once both services report ready
+# (/actuator/health/readiness), so with --warmup.enabled=true it follows the warm-up. Admission limits are
+# raised for these runs. SERVICE_ARGS are passed to both services, e.g. SERVICE_ARGS=--warmup.enabled=true.
+#
+# Results are printed and appended to target/startup/startup-<mode>.csv; load results are written to
+# target/startup/warmup-<mode>-<run>.json.
+
+set -euo pipefail
+
+MODE="${1:-jvm}"
+RUNS="${2:-5}"
+USER_PORT="${USER_PORT:-18081}"
+TODO_PORT="${TODO_PORT:-18082}"
+TIMEOUT_SECONDS="${TIMEOUT_SECONDS:-120}"
+LOAD_SECONDS="${LOAD_SECONDS:-0}"
+LOAD_INTERVAL="${LOAD_INTERVAL:-5}"
+read -r -a SERVICE_ARGS <<< "${SERVICE_ARGS:-}"
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+OUT_DIR="$ROOT/target/startup"
+OUT_FILE="$OUT_DIR/startup-$MODE.csv"
+
+USER_JAR="$ROOT/user-service/target/user-service-0.0.1-SNAPSHOT-exec.jar"
+TODO_JAR="$ROOT/todo-service/target/todo-service-0.0.1-SNAPSHOT-exec.jar"
+LOAD_JAR="$ROOT/load-generator/target/load-generator-0.0.1-SNAPSHOT-exec.jar"
+
+case "$MODE" in
+  jvm|aot|cds)
+    REQUIRED=("$USER_JAR" "$TODO_JAR")
+    ;;
+  native)
+    REQUIRED=("$ROOT/user-service/target/user-service" "$ROOT/todo-service/target/todo-service")
+    ;;
+  *)
+    echo "Usage: $0 [jvm|aot|cds|native] [runs]" >&2
+    exit 1
+    ;;
+esac
+(( LOAD_SECONDS > 0 )) && REQUIRED+=("$LOAD_JAR")
+
+for artifact in "${REQUIRED[@]}"; do
+  if [[ ! -e "$artifact" ]]; then
+    echo "Missing $artifact; build it first (see the header of this script)" >&2
+    exit 1
+  fi
+done
+
+# Lays out the jar as in the Docker image and runs the training, unless the archive is newer than the jar
+prepare_cds() {
+  local service="$1" jar="$2" dir="$ROOT/target/cds/$1"
+  if [[ -f "$dir/app.jsa" && "$dir/app.jsa" -nt "$jar" ]]; then
+    return
+  fi
+  rm -rf "$dir"
+  mkdir -p "$dir"
+  (cd "$dir" && jar xf "$jar" BOOT-INF && jar cf application.jar -C BOOT-INF/classes . && rm -rf BOOT-INF/classes)
+  "$ROOT/scripts/cds-training.sh" "$service" "$dir"
+}
+
+case "$MODE" in
+  jvm)
+    USER_CMD=(java -jar "$USER_JAR")
+    TODO_CMD=(java -jar "$TODO_JAR")
+    ;;
+  aot)
+    USER_CMD=(java -Dspring.aot.enabled=true -jar "$USER_JAR")
+    TODO_CMD=(java -Dspring.aot.enabled=true -jar "$TODO_JAR")
+    ;;
+  cds)
+    prepare_cds user-service "$USER_JAR"
+    prepare_cds todo-service "$TODO_JAR"
+    USER_CMD=(env -C "$ROOT/target/cds/user-service" java -XX:SharedArchiveFile=app.jsa -Dspring.aot.enabled=true @app.args)
+    TODO_CMD=(env -C "$ROOT/target/cds/todo-service" java -XX:SharedArchiveFile=app.jsa -Dspring.aot.enabled=true @app.args)
+    ;;
+  native)
+    USER_CMD=("$ROOT/user-service/target/user-service")
+    TODO_CMD=("$ROOT/todo-service/target/todo-service")
+    ;;
+esac
+
+USER_ARGS=("${SERVICE_ARGS[@]}")
+TODO_ARGS=("${SERVICE_ARGS[@]}")
+if (( LOAD_SECONDS > 0 )); then
+  # Rate limits are per IP and per user, and the load comes from one machine
+  USER_ARGS+=(--admission.concurrency.enabled=false)
+  for endpoint in register login; do
+    USER_ARGS+=(--admission.endpoints.$endpoint.permits-per-second=1000000 --admission.endpoints.$endpoint.burst=1000000)
+  done
+  TODO_ARGS+=(--admission.concurrency.enabled=false)
+  for endpoint in create list; do
+    TODO_ARGS+=(--admission.endpoints.$endpoint.permits-per-second=1000000 --admission.endpoints.$endpoint.burst=1000000)
+  done
+fi
+
+now_ms() {
+  echo $(( $(date +%s%N) / 1000000 ))
+}
+
+rss_mb() {
+  awk '/VmRSS/ { printf "%.1f", $2 / 1024 }' "/proc/$1/status"
+}
+
+USER_PID=""
+TODO_PID=""
+stop_services() {
+  [[ -n "$USER_PID" ]] && kill "$USER_PID" 2>/dev/null && wait "$USER_PID" 2>/dev/null || true
+  [[ -n "$TODO_PID" ]] && kill "$TODO_PID" 2>/dev/null && wait "$TODO_PID" 2>/dev/null || true
+  USER_PID=""
+  TODO_PID=""
+}
+trap stop_services EXIT
+
+mkdir -p "$OUT_DIR"
+[[ -f "$OUT_FILE" ]] || echo "timestamp,mode,run,first_todos_ms,user_rss_mb,todo_rss_mb" > "$OUT_FILE"
+
+printf "%-6s %4s %16s %14s %14s\n" mode run "first /todos ms" "user RSS MB" "todo RSS MB"
+total_ms=0
+for run in $(seq "$RUNS"); do
+  start=$(now_ms)
+  "${USER_CMD[@]}" --server.port="$USER_PORT" --logging.level.root=WARN "${USER_ARGS[@]}" >/dev/null 2>&1 &
+  USER_PID=$!
+  "${TODO_CMD[@]}" --server.port="$TODO_PORT" --logging.level.root=WARN "${TODO_ARGS[@]}" >/dev/null 2>&1 &
+  TODO_PID=$!
+
+  username="startup-$start-$run"
+  token=""
+  elapsed=""
+  while (( $(now_ms) - start < TIMEOUT_SECONDS * 1000 )); do
+    if [[ -z "$token" ]]; then
+      token=$(curl -sf -X POST "localhost:$USER_PORT/register" -H 'Content-Type: application/json' \
+        -d "{\"username\":\"$username\",\"password\":\"secret\"}" 2>/dev/null \
+        | sed -n 's/.*"token":"\([^"]*\)".*/\1/p' || true)
+    fi
+    if [[ -n "$token" ]] && curl -sf -o /dev/null "localhost:$TODO_PORT/todos" -H "Authorization: Bearer $token"; then
+      elapsed=$(( $(now_ms) - start ))
+      break
+    fi
+    sleep 0.01
+  done
+  if [[ -z "$elapsed" ]]; then
+    echo "No successful GET /todos within ${TIMEOUT_SECONDS}s" >&2
+    exit 1
+  fi
+
+  user_rss=$(rss_mb "$USER_PID")
+  todo_rss=$(rss_mb "$TODO_PID")
+  printf "%-6s %4d %16d %14s %14s\n" "$MODE" "$run" "$elapsed" "$user_rss" "$todo_rss"
+  if (( LOAD_SECONDS > 0 )); then
+    until curl -sf -o /dev/null "localhost:$USER_PORT/actuator/health/readiness" \
+        && curl -sf -o /dev/null "localhost:$TODO_PORT/actuator/health/readiness"; do
+      sleep 0.1
+    done
+    echo "Both services ready after $(( $(now_ms) - start )) ms"
+    java -jar "$LOAD_JAR" --user-service="http://localhost:$USER_PORT" --todo-service="http://localhost:$TODO_PORT" \
+      --warmup-seconds=0 --duration-seconds="$LOAD_SECONDS" --report-interval-seconds="$LOAD_INTERVAL" \
+      --output="$OUT_DIR/warmup-$MODE-$run.json"
+  fi
+  stop_services
+
+  echo "$(date -u +%Y-%m-%dT%H:%M:%SZ),$MODE,$run,$elapsed,$user_rss,$todo_rss" >> "$OUT_FILE"
+  total_ms=$(( total_ms + elapsed ))
+done
+
+echo "Mean time to first successful GET /todos: $(( total_ms / RUNS )) ms ($MODE, $RUNS runs)"
+echo "Results appended to $OUT_FILE"
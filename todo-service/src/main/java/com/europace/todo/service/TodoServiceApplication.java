@@ -1,9 +1,14 @@
 package com.europace.todo.service;
 
+import com.europace.todo.service.config.NativeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@ImportRuntimeHints(NativeHints.class)
+@EnableScheduling
 public class TodoServiceApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,44 @@
+package com.europace.todo.service.admission;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket that refills at {@code permitsPerSecond} and holds at most {@code burst} permits.
+ * <p>
+ * Implemented as the generic cell rate algorithm: instead of a token count it keeps the theoretical arrival
+ * time of the next request, so taking a permit is a single compare-and-set on one {@code long} and refilling
+ * needs no background work.
+ */
+public class TokenBucket {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+    public TokenBucket(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate and burst must be positive");
+        }
+        this.intervalNanos = Math.max(1, Math.round(1_000_000_000d / permitsPerSecond));
+        this.burstNanos = intervalNanos * burst;
+    }
+
+    /**
+     * Takes a permit if one is available at {@code nowNanos}.
+     *
+     * @return {@code 0} if a permit was taken, otherwise the nanoseconds until the next permit is available
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, nowNanos) + intervalNanos;
+            long wait = next - nowNanos - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.europace.todo.service.config;
+
+import com.europace.todo.service.admission.AdmissionInterceptor;
+import com.europace.todo.service.admission.AdmissionProperties;
+import com.europace.todo.service.service.JwtService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@ConditionalOnProperty(name = "admission.enabled", matchIfMissing = true)
+@EnableConfigurationProperties(AdmissionProperties.class)
+public class AdmissionConfig implements WebMvcConfigurer {
+
+    private final AdmissionInterceptor admissionInterceptor;
+
+    public AdmissionConfig(AdmissionProperties properties, JwtService jwtService, MeterRegistry meterRegistry) {
+        this.admissionInterceptor = new AdmissionInterceptor(properties, jwtService, meterRegistry);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(admissionInterceptor)
+                .excludePathPatterns("/actuator/**", "/swagger-ui/**", "/v3/api-docs/**", "/error");
+    }
+}
@@ -0,0 +1,68 @@
+package com.europace.todo.service.config;
+
+import com.europace.todo.service.dto.TodoBatchResponse;
+import com.europace.todo.service.dto.TodoChange;
+import com.europace.todo.service.dto.TodoChangesResponse;
+import com.europace.todo.service.dto.TodoRequest;
+import com.europace.todo.service.dto.TodoResponse;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+import java.util.List;
+
+/**
+ * Reflection and resource hints for the GraalVM native image (the {@code native} Maven profile) that Spring
+ * AOT cannot infer from the application context.
+ */
+public class NativeHints implements RuntimeHintsRegistrar {
+
+    /**
+     * JJWT's API jar looks up its implementation classes by name.
+     */
+    static final List<String> JJWT_IMPLEMENTATION_CLASSES = List.of(
+            "io.jsonwebtoken.impl.DefaultClaimsBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtHeaderBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.io.StandardCompressionAlgorithms",
+            "io.jsonwebtoken.impl.security.DefaultDynamicJwkBuilder",
+            "io.jsonwebtoken.impl.security.DefaultJwkParserBuilder",
+            "io.jsonwebtoken.impl.security.DefaultJwkSetBuilder",
+            "io.jsonwebtoken.impl.security.DefaultJwkSetParserBuilder",
+            "io.jsonwebtoken.impl.security.DefaultKeyOperationBuilder",
+            "io.jsonwebtoken.impl.security.DefaultKeyOperationPolicyBuilder",
+            "io.jsonwebtoken.impl.security.JwksBridge",
+            "io.jsonwebtoken.impl.security.KeysBridge",
+            "io.jsonwebtoken.impl.security.StandardCurves",
+            "io.jsonwebtoken.impl.security.StandardEncryptionAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardHashAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyOperations",
+            "io.jsonwebtoken.impl.security.StandardSecureDigestAlgorithms",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer");
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (String className : JJWT_IMPLEMENTATION_CLASSES) {
+            hints.reflection().registerType(TypeReference.of(className),
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS,
+                    MemberCategory.DECLARED_FIELDS);
+        }
+        hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+
+        // Request and response bodies, also written outside of controllers (Server-Sent Events).
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                TodoRequest.class, TodoResponse.class, TodoBatchResponse.class, TodoChange.class,
+                TodoChangesResponse.class);
+        // Instantiated by Hibernate for the "select new ..." queries of TodoRepository.
+        hints.reflection().registerType(TodoResponse.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        hints.reflection().registerType(TodoChange.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+
+        // Schema script of the persistent profile.
+        hints.resources().registerPattern("db/*.sql");
+    }
+}
@@ -1,15 +1,33 @@
 package com.europace.todo.service.controller;
 
+import com.europace.todo.service.dto.TodoBatchResponse;
+import com.europace.todo.service.dto.TodoChangesResponse;
 import com.europace.todo.service.dto.TodoRequest;
 import com.europace.todo.service.dto.TodoResponse;
 import com.europace.todo.service.entity.Todo;
+import com.europace.todo.service.service.TodoEventHub;
 import com.europace.todo.service.service.TodoService;
+import com.europace.todo.service.service.WriteBehindQueueFullException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -19,10 +37,21 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 @Tag(name = "Todo API", description = "Endpoints for managing todos")
 public class TodoController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final int DEFAULT_PAGE_SIZE = 100;
+    static final int MAX_PAGE_SIZE = 1000;
+
     private final TodoService todoService;
+    private final TodoEventHub todoEventHub;
+    private final ObjectMapper objectMapper;
+    private final int maxBatchSize;
 
-    public TodoController(TodoService todoService) {
+    public TodoController(TodoService todoService, TodoEventHub todoEventHub, ObjectMapper objectMapper,
+                          @Value("${todo.batch.max-size:10000}") int maxBatchSize) {
         this.todoService = todoService;
+        this.todoEventHub = todoEventHub;
+        this.objectMapper = objectMapper;
+        this.maxBatchSize = maxBatchSize;
     }
 
     @PostMapping("/todos")
@@ -32,7 +61,8 @@ public class TodoController {
         description = "Creates a new todo item for the authenticated user",
         responses = {
             @ApiResponse(responseCode = "201", description = "Todo successfully created"),
-            @ApiResponse(responseCode = "401", description = "Missing or invalid authorization token")
+            @ApiResponse(responseCode = "401", description = "Missing or invalid authorization token"),
+            @ApiResponse(responseCode = "503", description = "Write-behind queue full, retry later")
         }
     )
     public ResponseEntity<TodoResponse> createTodo(
@@ -53,34 +83,212 @@ public class TodoController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping("/todos/batch")
+    @SecurityRequirement(name = "bearerAuth")
+    @Operation(
+        summary = "Create many todos at once",
+        description = "Creates all given todo items for the authenticated user in one transaction "
+                + "and returns their ids in request order",
+        responses = {
+            @ApiResponse(responseCode = "201", description = "Todos successfully created"),
+            @ApiResponse(responseCode = "400", description = "Empty batch, or a todo that is null or has blank or too long text"),
+            @ApiResponse(responseCode = "401", description = "Missing or invalid authorization token"),
+            @ApiResponse(responseCode = "413", description = "Batch exceeds the maximum size")
+        }
+    )
+    public ResponseEntity<TodoBatchResponse> createTodos(
+            @RequestBody List<@Valid @NotNull TodoRequest> requests,
+            @RequestHeader(value = "Authorization", required = false) String authHeader) {
+
+        String token = extractToken(authHeader);
+        if (token == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        if (requests.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (requests.size() > maxBatchSize) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+
+        List<String> texts = requests.stream().map(TodoRequest::getText).toList();
+        List<Todo> todos = todoService.createTodos(texts, token);
+        if (todos == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        List<Long> ids = todos.stream().map(Todo::getId).toList();
+        return ResponseEntity.status(HttpStatus.CREATED).body(new TodoBatchResponse(ids));
+    }
+
     @GetMapping("/todos")
     @SecurityRequirement(name = "bearerAuth")
     @Operation(
         summary = "Get all todos for authenticated user",
-        description = "Retrieves all todo items belonging to the authenticated user",
+        description = "Retrieves the todo items belonging to the authenticated user. "
+                + "Passing cursor or limit switches to keyset pagination ordered by id; "
+                + "the cursor for the next page is returned in the " + NEXT_CURSOR_HEADER + " header. "
+                + "The response carries an ETag; a request with a matching If-None-Match header gets 304 "
+                + "without the todos being read.",
         responses = {
             @ApiResponse(responseCode = "200", description = "Todos successfully retrieved"),
+            @ApiResponse(responseCode = "304", description = "Todos unchanged since the ETag in If-None-Match"),
+            @ApiResponse(responseCode = "400", description = "Invalid page size"),
             @ApiResponse(responseCode = "401", description = "Missing or invalid authorization token")
         }
     )
     public ResponseEntity<List<TodoResponse>> getTodos(
-            @RequestHeader(value = "Authorization", required = false) String authHeader) {
+            @Parameter(description = "Id of the last todo of the previous page")
+            @RequestParam(name = "cursor", required = false) Long cursor,
+            @Parameter(description = "Maximum number of todos to return, at most " + MAX_PAGE_SIZE)
+            @RequestParam(name = "limit", required = false) Integer limit,
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            WebRequest webRequest) {
         
         String token = extractToken(authHeader);
         if (token == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
+        if (limit != null && limit <= 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        Long userId = todoService.resolveUserId(token);
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
 
-        List<Todo> todos = todoService.getUserTodos(token);
-        if (todos == null) {
+        String etag = todoService.currentETag(userId);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        boolean paged = cursor != null || limit != null;
+        int pageSize = limit != null ? Math.min(limit, MAX_PAGE_SIZE) : DEFAULT_PAGE_SIZE;
+
+        List<TodoResponse> todos = paged
+                ? todoService.findUserTodos(userId, cursor, pageSize)
+                : todoService.findUserTodos(userId);
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().eTag(etag);
+        if (paged && todos.size() == pageSize) {
+            builder.header(NEXT_CURSOR_HEADER, String.valueOf(todos.get(todos.size() - 1).getId()));
+        }
+        return builder.body(todos);
+    }
+
+    @GetMapping("/todos/changes")
+    @SecurityRequirement(name = "bearerAuth")
+    @Operation(
+        summary = "Get todos changed since a watermark",
+        description = "Returns the todo items of the authenticated user that were created after the given "
+                + "watermark, ordered by change sequence, and the watermark to pass on the next call. "
+                + "Start with since=0; while hasMore is true, call again with the returned watermark.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Changes successfully retrieved"),
+            @ApiResponse(responseCode = "400", description = "Invalid watermark or page size"),
+            @ApiResponse(responseCode = "401", description = "Missing or invalid authorization token")
+        }
+    )
+    public ResponseEntity<TodoChangesResponse> getChanges(
+            @Parameter(description = "Watermark returned by the previous call, 0 for a full sync")
+            @RequestParam(name = "since", defaultValue = "0") long since,
+            @Parameter(description = "Maximum number of changes to return, at most " + MAX_PAGE_SIZE)
+            @RequestParam(name = "limit", required = false) Integer limit,
+            @RequestHeader(value = "Authorization", required = false) String authHeader) {
+
+        String token = extractToken(authHeader);
+        if (token == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        if (since < 0 || (limit != null && limit <= 0)) {
+            return ResponseEntity.badRequest().build();
+        }
+        Long userId = todoService.resolveUserId(token);
+        if (userId == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
-        List<TodoResponse> response = todos.stream()
-                .map(todo -> new TodoResponse(todo.getId(), todo.getText(), todo.getUserId()))
-                .toList();
-        
-        return ResponseEntity.ok(response);
+        int pageSize = limit != null ? Math.min(limit, MAX_PAGE_SIZE) : MAX_PAGE_SIZE;
+        return ResponseEntity.ok(todoService.getChangesSince(userId, since, pageSize));
+    }
+
+    @GetMapping(value = "/todos", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @SecurityRequirement(name = "bearerAuth")
+    @Operation(
+        summary = "Stream all todos for authenticated user",
+        description = "Streams the todo items of the authenticated user as newline-delimited JSON, "
+                + "read from a database cursor without loading the whole list into memory",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Todos are being streamed"),
+            @ApiResponse(responseCode = "401", description = "Missing or invalid authorization token")
+        }
+    )
+    public ResponseEntity<StreamingResponseBody> streamTodos(
+            @RequestHeader(value = "Authorization", required = false) String authHeader) {
+
+        String token = extractToken(authHeader);
+        Long userId = token != null ? todoService.resolveUserId(token) : null;
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        StreamingResponseBody body = outputStream -> {
+            ObjectWriter writer = objectMapper.writerFor(TodoResponse.class)
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                // Every record, including the last, ends with a newline
+                generator.setRootValueSeparator(null);
+                todoService.streamUserTodos(userId, todo -> {
+                    try {
+                        writer.writeValue(generator, todo);
+                        generator.writeRaw('\n');
+                        generator.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+    
+    @GetMapping(value = "/todos/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @SecurityRequirement(name = "bearerAuth")
+    @Operation(
+        summary = "Subscribe to todo changes",
+        description = "Opens a Server-Sent Events stream that receives a \"todo\" event for every todo created "
+                + "for the authenticated user, plus periodic heartbeat comments",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Stream opened"),
+            @ApiResponse(responseCode = "401", description = "Missing or invalid authorization token"),
+            @ApiResponse(responseCode = "429", description = "Too many open streams for this user")
+        }
+    )
+    public ResponseEntity<SseEmitter> subscribe(
+            @RequestHeader(value = "Authorization", required = false) String authHeader) {
+
+        String token = extractToken(authHeader);
+        Long userId = token != null ? todoService.resolveUserId(token) : null;
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        SseEmitter emitter = todoEventHub.subscribe(userId);
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .body(emitter);
+    }
+    
+    @ExceptionHandler(WriteBehindQueueFullException.class)
+    public ResponseEntity<Void> writeBehindQueueFull() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .build();
     }
     
     private String extractToken(String authHeader) {
@@ -0,0 +1,21 @@
+package com.europace.todo.service.dto;
+
+import java.util.List;
+
+public class TodoBatchResponse {
+    private List<Long> ids;
+    
+    public TodoBatchResponse() {}
+    
+    public TodoBatchResponse(List<Long> ids) {
+        this.ids = ids;
+    }
+    
+    public List<Long> getIds() {
+        return ids;
+    }
+    
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+}
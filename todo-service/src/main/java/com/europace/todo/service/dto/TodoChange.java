@@ -0,0 +1,49 @@
+package com.europace.todo.service.dto;
+
+public class TodoChange {
+    private Long id;
+    private String text;
+    private Long userId;
+    private Long changeSeq;
+    
+    public TodoChange() {}
+    
+    public TodoChange(Long id, String text, Long userId, Long changeSeq) {
+        this.id = id;
+        this.text = text;
+        this.userId = userId;
+        this.changeSeq = changeSeq;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getText() {
+        return text;
+    }
+    
+    public void setText(String text) {
+        this.text = text;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public Long getChangeSeq() {
+        return changeSeq;
+    }
+    
+    public void setChangeSeq(Long changeSeq) {
+        this.changeSeq = changeSeq;
+    }
+}
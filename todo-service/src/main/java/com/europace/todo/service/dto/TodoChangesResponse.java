@@ -0,0 +1,41 @@
+package com.europace.todo.service.dto;
+
+import java.util.List;
+
+public class TodoChangesResponse {
+    private List<TodoChange> changes;
+    private long watermark;
+    private boolean hasMore;
+    
+    public TodoChangesResponse() {}
+    
+    public TodoChangesResponse(List<TodoChange> changes, long watermark, boolean hasMore) {
+        this.changes = changes;
+        this.watermark = watermark;
+        this.hasMore = hasMore;
+    }
+    
+    public List<TodoChange> getChanges() {
+        return changes;
+    }
+    
+    public void setChanges(List<TodoChange> changes) {
+        this.changes = changes;
+    }
+    
+    public long getWatermark() {
+        return watermark;
+    }
+    
+    public void setWatermark(long watermark) {
+        this.watermark = watermark;
+    }
+    
+    public boolean isHasMore() {
+        return hasMore;
+    }
+    
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
@@ -1,6 +1,11 @@
 package com.europace.todo.service.dto;
 
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
 public class TodoRequest {
+    @NotBlank(message = "Text is required")
+    @Size(max = 255, message = "Text must be at most 255 characters")
     private String text;
     
     public TodoRequest() {}
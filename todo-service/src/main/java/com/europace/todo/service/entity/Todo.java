@@ -3,10 +3,14 @@ package com.europace.todo.service.entity;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "todos")
+@Table(name = "todos", indexes = {
+        @Index(name = "idx_todos_user_id_id", columnList = "user_id, id"),
+        @Index(name = "idx_todos_user_id_change_seq", columnList = "user_id, change_seq")
+})
 public class Todo {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "todos_seq")
+    @SequenceGenerator(name = "todos_seq", sequenceName = "todos_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
@@ -15,6 +19,9 @@ public class Todo {
     @Column(name = "user_id", nullable = false)
     private Long userId;
     
+    @Column(name = "change_seq", nullable = false)
+    private Long changeSeq;
+    
     public Todo() {}
     
     public Todo(String text, Long userId) {
@@ -22,6 +29,12 @@ public class Todo {
         this.userId = userId;
     }
     
+    public Todo(String text, Long userId, Long changeSeq) {
+        this.text = text;
+        this.userId = userId;
+        this.changeSeq = changeSeq;
+    }
+    
     public Long getId() {
         return id;
     }
@@ -45,4 +58,12 @@ public class Todo {
     public void setUserId(Long userId) {
         this.userId = userId;
     }
+    
+    public Long getChangeSeq() {
+        return changeSeq;
+    }
+    
+    public void setChangeSeq(Long changeSeq) {
+        this.changeSeq = changeSeq;
+    }
 }
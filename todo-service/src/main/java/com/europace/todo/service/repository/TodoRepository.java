@@ -1,10 +1,49 @@
 package com.europace.todo.service.repository;
 
+import com.europace.todo.service.dto.TodoChange;
+import com.europace.todo.service.dto.TodoResponse;
 import com.europace.todo.service.entity.Todo;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.stream.Stream;
 
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+/**
+ * Read paths project straight into {@link TodoResponse} or {@link TodoChange}: the rows never become managed
+ * entities, so there is no persistence context or dirty checking involved.
+ */
 public interface TodoRepository extends JpaRepository<Todo, Long> {
-    List<Todo> findByUserId(Long userId);
+
+    /**
+     * Served by the {@code (user_id, id)} index declared on {@link Todo}, as are the paged and streamed variants below.
+     */
+    @Query("select new com.europace.todo.service.dto.TodoResponse(t.id, t.text, t.userId) "
+            + "from Todo t where t.userId = :userId order by t.id")
+    List<TodoResponse> findResponsesByUserId(@Param("userId") Long userId);
+
+    @Query("select new com.europace.todo.service.dto.TodoResponse(t.id, t.text, t.userId) "
+            + "from Todo t where t.userId = :userId and t.id > :afterId order by t.id")
+    List<TodoResponse> findResponsesByUserIdAfter(@Param("userId") Long userId, @Param("afterId") Long afterId, Limit limit);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.europace.todo.service.dto.TodoResponse(t.id, t.text, t.userId) "
+            + "from Todo t where t.userId = :userId order by t.id")
+    Stream<TodoResponse> streamResponsesByUserId(@Param("userId") Long userId);
+
+    /**
+     * The change feed walks the {@code (user_id, change_seq)} index, so its cost follows the number of changes
+     * rather than the size of the list.
+     */
+    @Query("select new com.europace.todo.service.dto.TodoChange(t.id, t.text, t.userId, t.changeSeq) "
+            + "from Todo t where t.userId = :userId and t.changeSeq > :since and t.changeSeq <= :until "
+            + "order by t.changeSeq")
+    List<TodoChange> findChangesByUserId(@Param("userId") Long userId, @Param("since") long since,
+                                         @Param("until") long until, Limit limit);
 }
@@ -0,0 +1,75 @@
+package com.europace.todo.service.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hands out the strictly increasing change sequence numbers stored in {@code todos.change_seq} and
+ * tracks which of them may still be uncommitted.
+ * <p>
+ * Numbers follow the wall clock in microseconds and are bumped past the last one handed out, so they
+ * keep increasing across restarts without reading the table, and numbers of rolled back transactions
+ * are never reused. The watermark starts just below the clock at startup, so changes committed before a
+ * restart are readable right away. Every block is held in flight until its transaction completes; the
+ * {@link #safeWatermark() safe watermark} stays below the oldest block in flight, so a reader that only
+ * asks for changes up to it can never skip a change that commits later.
+ */
+@Component
+public class ChangeSequence {
+
+    private final Clock clock;
+    private final ConcurrentSkipListSet<Long> inFlight = new ConcurrentSkipListSet<>();
+    private long last;
+
+    public ChangeSequence() {
+        this(Clock.systemUTC());
+    }
+
+    ChangeSequence(Clock clock) {
+        this.clock = clock;
+        // Everything committed before this start has a lower number, so it is visible before the first allocation.
+        this.last = nowMicros() - 1;
+    }
+
+    /**
+     * Reserves {@code count} consecutive numbers for the current transaction and releases them when it completes.
+     *
+     * @return the first reserved number
+     */
+    public long allocate(int count) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Change sequence numbers must be allocated inside a transaction");
+        }
+        long first;
+        synchronized (this) {
+            first = Math.max(last + 1, nowMicros());
+            last = first + count - 1;
+            inFlight.add(first);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                inFlight.remove(first);
+            }
+        });
+        return first;
+    }
+
+    /**
+     * Highest number up to which every change is either committed or rolled back.
+     */
+    public synchronized long safeWatermark() {
+        return inFlight.isEmpty() ? last : inFlight.first() - 1;
+    }
+
+    private long nowMicros() {
+        Instant now = clock.instant();
+        return TimeUnit.SECONDS.toMicros(now.getEpochSecond()) + TimeUnit.NANOSECONDS.toMicros(now.getNano());
+    }
+}
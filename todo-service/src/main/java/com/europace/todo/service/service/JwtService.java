@@ -1,51 +1,103 @@
 package com.europace.todo.service.service;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import javax.crypto.SecretKey;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class JwtService {
 
-    @Value("${jwt.secret}")
-    private String secretKey;
+    private final JwtParser parser;
+    private final VerifiedTokenCache tokenCache;
+    private final Timer cachedTimer;
+    private final Timer validTimer;
+    private final Timer invalidTimer;
 
-    @Value("${jwt.expiration}")
-    private long expirationTime;
+    public JwtService(@Value("${jwt.secret}") String secretKey, VerifiedTokenCache tokenCache, MeterRegistry meterRegistry) {
+        this.parser = Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(secretKey.getBytes()))
+                .build();
+        this.tokenCache = tokenCache;
+        this.cachedTimer = verificationTimer(meterRegistry, "cached");
+        this.validTimer = verificationTimer(meterRegistry, "valid");
+        this.invalidTimer = verificationTimer(meterRegistry, "invalid");
+    }
 
-    public Long extractUserId(String token) {
-        try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-            return Long.parseLong(claims.getSubject());
-        } catch (Exception e) {
+    /**
+     * Verifies the signature and expiry of the token and reads its claims in one parse.
+     * Tokens verified before are answered from the {@link VerifiedTokenCache} until they expire.
+     *
+     * @return the verified claims, or {@code null} if the token is missing, invalid or expired
+     */
+    public VerifiedToken verify(String token) {
+        if (token == null) {
             return null;
         }
+        long start = System.nanoTime();
+        VerifiedToken cached = tokenCache.get(token);
+        if (cached != null) {
+            cachedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return cached;
+        }
+        VerifiedToken verified = parse(token);
+        if (verified != null) {
+            tokenCache.put(token, verified);
+        }
+        (verified != null ? validTimer : invalidTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return verified;
     }
 
-    public boolean validateToken(String token) {
+    /**
+     * Identifies the user of a token for the admission check, which runs before the request's own
+     * {@link #verify}. Records no {@code jwt.verification} sample and no cache statistics, and does not cache a
+     * token it had to parse, so each request is still counted once with the outcome of its own verification.
+     *
+     * @return the user id, or {@code null} if the token is missing, invalid or expired
+     */
+    public Long identify(String token) {
         if (token == null) {
-            return false;
+            return null;
         }
-        try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
-        } catch (Exception e) {
-            return false;
+        VerifiedToken verified = tokenCache.peek(token);
+        if (verified == null) {
+            verified = parse(token);
         }
+        return verified != null ? verified.getUserId() : null;
     }
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secretKey.getBytes());
+    public Long extractUserId(String token) {
+        VerifiedToken verified = verify(token);
+        return verified != null ? verified.getUserId() : null;
+    }
+
+    public boolean validateToken(String token) {
+        return verify(token) != null;
+    }
+
+    private static Timer verificationTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("jwt.verification")
+                .description("Time to verify a bearer token")
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private VerifiedToken parse(String token) {
+        try {
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            return new VerifiedToken(
+                    Long.parseLong(claims.getSubject()),
+                    claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                    claims.getExpiration() != null ? claims.getExpiration().toInstant() : null);
+        } catch (Exception e) {
+            return null;
+        }
     }
 }
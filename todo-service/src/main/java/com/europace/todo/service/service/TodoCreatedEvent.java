@@ -0,0 +1,27 @@
+package com.europace.todo.service.service;
+
+import com.europace.todo.service.dto.TodoChange;
+
+import java.util.List;
+
+/**
+ * Published by {@link TodoService} when todos were created for a user; delivered to listeners after commit.
+ */
+public class TodoCreatedEvent {
+
+    private final Long userId;
+    private final List<TodoChange> todos;
+
+    public TodoCreatedEvent(Long userId, List<TodoChange> todos) {
+        this.userId = userId;
+        this.todos = todos;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public List<TodoChange> getTodos() {
+        return todos;
+    }
+}
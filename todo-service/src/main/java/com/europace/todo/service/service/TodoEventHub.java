@@ -0,0 +1,223 @@
+package com.europace.todo.service.service;
+
+import com.europace.todo.service.dto.TodoChange;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fan-out hub for the {@code GET /todos/stream} Server-Sent Events connections.
+ * <p>
+ * Open connections are {@link SseEmitter}s on async servlet requests, so an idle connection holds no
+ * thread. Created todos are pushed after commit to every connection of their user, and every connection
+ * gets a heartbeat comment at a fixed rate so proxies keep it open and dead clients are detected.
+ * <p>
+ * Each connection queues its events and drains them in order on a virtual thread that only exists while
+ * there is something to send, so a slow client never delays the creating request or other clients. The todos
+ * created together (one request or one group commit) are queued as one entry. A client that falls more than
+ * {@code todo.stream.max-pending-events} entries behind is disconnected; it can reconnect and catch up through
+ * {@code GET /todos/changes?since=} the id of the last event it received, which is the todo's change sequence number.
+ */
+@Component
+public class TodoEventHub implements MeterBinder {
+
+    static final String TODO_EVENT = "todo";
+
+    private final ConcurrentMap<Long, Set<Connection>> connections = new ConcurrentHashMap<>();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final ExecutorService sender;
+    private final long timeoutMs;
+    private final int maxConnectionsPerUser;
+    private final int maxPendingEvents;
+    private Counter todoEvents;
+    private Counter heartbeats;
+
+    @Autowired
+    public TodoEventHub(@Value("${todo.stream.timeout-ms:1800000}") long timeoutMs,
+                        @Value("${todo.stream.max-connections-per-user:5}") int maxConnectionsPerUser,
+                        @Value("${todo.stream.max-pending-events:1000}") int maxPendingEvents) {
+        this(timeoutMs, maxConnectionsPerUser, maxPendingEvents, Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    TodoEventHub(long timeoutMs, int maxConnectionsPerUser, int maxPendingEvents, ExecutorService sender) {
+        this.timeoutMs = timeoutMs;
+        this.maxConnectionsPerUser = maxConnectionsPerUser;
+        this.maxPendingEvents = maxPendingEvents;
+        this.sender = sender;
+    }
+
+    /**
+     * Opens a new connection for the user.
+     *
+     * @return the emitter to return from the controller, or {@code null} if the user already has the maximum number of connections
+     */
+    public SseEmitter subscribe(Long userId) {
+        Connection connection = new Connection(userId, newEmitter());
+        Set<Connection> userConnections = connections.compute(userId, (id, existing) -> {
+            Set<Connection> set = existing != null ? existing : ConcurrentHashMap.newKeySet();
+            if (set.size() < maxConnectionsPerUser && set.add(connection)) {
+                connectionCount.incrementAndGet();
+            }
+            return set;
+        });
+        if (!userConnections.contains(connection)) {
+            return null;
+        }
+        connection.emitter.onCompletion(() -> remove(connection));
+        connection.emitter.onTimeout(() -> remove(connection));
+        connection.emitter.onError(error -> remove(connection));
+        return connection.emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTodoCreated(TodoCreatedEvent event) {
+        Set<Connection> userConnections = connections.get(event.getUserId());
+        if (userConnections == null) {
+            return;
+        }
+        // The todos of one event are queued as one entry, so a large batch counts once against max-pending-events
+        List<SseEmitter.SseEventBuilder> events = event.getTodos().stream()
+                .map(todo -> SseEmitter.event()
+                        .name(TODO_EVENT)
+                        .id(String.valueOf(todo.getChangeSeq()))
+                        .data(todo, MediaType.APPLICATION_JSON))
+                .toList();
+        for (Connection connection : userConnections) {
+            connection.enqueue(new PendingEvent(events, todoEvents));
+        }
+    }
+
+    @Scheduled(fixedRateString = "${todo.stream.heartbeat-ms:15000}", initialDelayString = "${todo.stream.heartbeat-ms:15000}")
+    public void sendHeartbeats() {
+        connections.values().forEach(userConnections -> userConnections.forEach(connection ->
+                connection.enqueue(new PendingEvent(List.of(SseEmitter.event().comment("heartbeat")), heartbeats))));
+    }
+
+    public int connectionCount() {
+        return connectionCount.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("todos.stream.connections", connectionCount, AtomicInteger::get)
+                .description("Open Server-Sent Events connections")
+                .register(registry);
+        todoEvents = eventCounter(registry, TODO_EVENT);
+        heartbeats = eventCounter(registry, "heartbeat");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        connections.values().forEach(userConnections -> userConnections.forEach(connection -> connection.emitter.complete()));
+        sender.shutdown();
+    }
+
+    SseEmitter newEmitter() {
+        return new SseEmitter(timeoutMs);
+    }
+
+    private void remove(Connection connection) {
+        connections.computeIfPresent(connection.userId, (id, userConnections) -> {
+            if (userConnections.remove(connection)) {
+                connectionCount.decrementAndGet();
+            }
+            return userConnections.isEmpty() ? null : userConnections;
+        });
+    }
+
+    private static Counter eventCounter(MeterRegistry registry, String type) {
+        return Counter.builder("todos.stream.events")
+                .description("Events sent to Server-Sent Events connections")
+                .tag("type", type)
+                .register(registry);
+    }
+
+    /**
+     * Events queued together, such as the todos of one batch; sent in order and counted once against the queue.
+     */
+    private static class PendingEvent {
+        private final List<SseEmitter.SseEventBuilder> events;
+        private final Counter sent;
+
+        PendingEvent(List<SseEmitter.SseEventBuilder> events, Counter sent) {
+            this.events = events;
+            this.sent = sent;
+        }
+    }
+
+    private class Connection {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final Queue<PendingEvent> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pendingCount = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        Connection(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void enqueue(PendingEvent event) {
+            if (pendingCount.incrementAndGet() > maxPendingEvents) {
+                close(null);
+                return;
+            }
+            pending.add(event);
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                PendingEvent event;
+                while ((event = pending.poll()) != null) {
+                    pendingCount.decrementAndGet();
+                    for (SseEmitter.SseEventBuilder builder : event.events) {
+                        try {
+                            emitter.send(builder);
+                        } catch (IOException | IllegalStateException e) {
+                            close(e);
+                            return;
+                        }
+                        if (event.sent != null) {
+                            event.sent.increment();
+                        }
+                    }
+                }
+                draining.set(false);
+            } while (!pending.isEmpty() && draining.compareAndSet(false, true));
+        }
+
+        private void close(Throwable error) {
+            remove(this);
+            pending.clear();
+            if (error != null) {
+                emitter.completeWithError(error);
+            } else {
+                emitter.complete();
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.europace.todo.service.service;
+
+import com.europace.todo.service.dto.TodoResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of each user's full todo list, bounded by the estimated memory of the cached lists.
+ * <p>
+ * Every entry is tagged with the {@link TodoVersions} version that was current before its list was loaded,
+ * and is only served while that version is still current. Because the version is bumped after a create
+ * commits, bumping it invalidates the user's entry atomically: a reader either gets a list loaded after the
+ * commit or goes to the database. A slow load can never replace an entry tagged with a newer version.
+ */
+@Component
+public class TodoListCache implements MeterBinder {
+
+    private static final long LIST_OVERHEAD_BYTES = 64;
+    private static final long TODO_OVERHEAD_BYTES = 96;
+
+    private final boolean enabled;
+    private final int maxListSize;
+    private final TodoVersions todoVersions;
+    private final Cache<Long, CachedList> cache;
+    private final Counter hits;
+    private final Counter misses;
+
+    public TodoListCache(@Value("${todo.cache.enabled:true}") boolean enabled,
+                         @Value("${todo.cache.max-memory-mb:64}") long maxMemoryMb,
+                         @Value("${todo.cache.max-list-size:10000}") int maxListSize,
+                         @Value("${todo.cache.ttl-ms:0}") long ttlMs,
+                         TodoVersions todoVersions,
+                         MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.maxListSize = maxListSize;
+        this.todoVersions = todoVersions;
+        Caffeine<Long, CachedList> builder = Caffeine.newBuilder()
+                .maximumWeight(maxMemoryMb * 1024 * 1024)
+                .weigher((Long userId, CachedList list) -> (int) Math.min(Integer.MAX_VALUE, list.bytes));
+        if (ttlMs > 0) {
+            builder.expireAfterWrite(Duration.ofMillis(ttlMs));
+        }
+        this.cache = builder.build();
+        this.hits = requests(meterRegistry, "hit");
+        this.misses = requests(meterRegistry, "miss");
+    }
+
+    /**
+     * Returns the user's cached list if it is still current, and otherwise loads it with {@code loader} and
+     * caches it. Lists longer than {@code todo.cache.max-list-size} are returned but not cached.
+     */
+    public List<TodoResponse> get(Long userId, Function<Long, List<TodoResponse>> loader) {
+        if (!enabled) {
+            return loader.apply(userId);
+        }
+        long version = todoVersions.current(userId);
+        CachedList cached = cache.getIfPresent(userId);
+        if (cached != null && cached.version == version) {
+            hits.increment();
+            return cached.todos;
+        }
+        misses.increment();
+        List<TodoResponse> todos = List.copyOf(loader.apply(userId));
+        if (todos.size() <= maxListSize) {
+            cache.asMap().merge(userId, new CachedList(version, todos),
+                    (existing, loaded) -> existing.version > loaded.version ? existing : loaded);
+        }
+        return todos;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("todos.cache.size", cache, Cache::estimatedSize)
+                .description("Users whose todo list is cached")
+                .register(registry);
+        Gauge.builder("todos.cache.memory", this, TodoListCache::memoryBytes)
+                .description("Estimated memory used by the cached todo lists")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("todos.cache.hit.ratio", this, TodoListCache::hitRatio)
+                .description("Share of todo list reads answered from the cache")
+                .register(registry);
+    }
+
+    public long memoryBytes() {
+        cache.cleanUp();
+        return cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L);
+    }
+
+    public double hitRatio() {
+        double requests = hits.count() + misses.count();
+        return requests > 0 ? hits.count() / requests : 0.0;
+    }
+
+    /**
+     * Rough heap footprint of a cached list: list and response objects, boxed ids and the text strings.
+     */
+    static long estimateBytes(List<TodoResponse> todos) {
+        long bytes = LIST_OVERHEAD_BYTES;
+        for (TodoResponse todo : todos) {
+            bytes += TODO_OVERHEAD_BYTES + (todo.getText() != null ? todo.getText().length() : 0);
+        }
+        return bytes;
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("todos.cache.requests")
+                .description("Todo list reads by cache result")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static final class CachedList {
+        private final long version;
+        private final List<TodoResponse> todos;
+        private final long bytes;
+
+        private CachedList(long version, List<TodoResponse> todos) {
+            this.version = version;
+            this.todos = todos;
+            this.bytes = estimateBytes(todos);
+        }
+    }
+}
@@ -1,46 +1,231 @@
 package com.europace.todo.service.service;
 
+import com.europace.todo.service.dto.TodoChange;
+import com.europace.todo.service.dto.TodoChangesResponse;
+import com.europace.todo.service.dto.TodoResponse;
 import com.europace.todo.service.entity.Todo;
 import com.europace.todo.service.repository.TodoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class TodoService {
-    
+
+    private static final int BATCH_FLUSH_SIZE = 1000;
+
     private final TodoRepository todoRepository;
     private final JwtService jwtService;
-    
-    public TodoService(TodoRepository todoRepository, JwtService jwtService) {
+    private final EntityManager entityManager;
+    private final TodoVersions todoVersions;
+    private final TodoListCache listCache;
+    private final ChangeSequence changeSequence;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TodoWriteBehind writeBehind;
+    private final TransactionTemplate transactionTemplate;
+    private final SingleFlight<Map.Entry<Long, Long>, List<TodoResponse>> listQueries;
+    private final Timer listQueryTimer;
+    private final Timer pageQueryTimer;
+    private final Timer changesQueryTimer;
+    private final DistributionSummary listRows;
+    private final DistributionSummary pageRows;
+    private final DistributionSummary streamRows;
+    private final DistributionSummary changesRows;
+
+    public TodoService(TodoRepository todoRepository, JwtService jwtService, EntityManager entityManager,
+                       TodoVersions todoVersions, TodoListCache listCache, ChangeSequence changeSequence,
+                       ApplicationEventPublisher eventPublisher, TodoWriteBehind writeBehind,
+                       PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
         this.todoRepository = todoRepository;
         this.jwtService = jwtService;
+        this.entityManager = entityManager;
+        this.todoVersions = todoVersions;
+        this.listCache = listCache;
+        this.changeSequence = changeSequence;
+        this.eventPublisher = eventPublisher;
+        this.writeBehind = writeBehind;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.listQueries = new SingleFlight<>(Counter.builder("todos.query.coalesced")
+                .description("Reads of a user's todo list that shared an identical query already in flight")
+                .register(meterRegistry));
+        this.listQueryTimer = queryTimer(meterRegistry, "list");
+        this.pageQueryTimer = queryTimer(meterRegistry, "page");
+        this.changesQueryTimer = queryTimer(meterRegistry, "changes");
+        this.listRows = rowsSummary(meterRegistry, "list");
+        this.pageRows = rowsSummary(meterRegistry, "page");
+        this.streamRows = rowsSummary(meterRegistry, "stream");
+        this.changesRows = rowsSummary(meterRegistry, "changes");
     }
-    
+
+    /**
+     * Saves a single todo. With write-behind enabled the todo joins the next group commit of
+     * {@link TodoWriteBehind} and this call returns once that group has committed; otherwise it is
+     * inserted in a transaction of its own. The transaction is opened programmatically so that a
+     * caller waiting for its group does not hold a database connection.
+     *
+     * @throws WriteBehindQueueFullException if write-behind is enabled and its queue is full
+     */
     public Todo createTodo(String text, String token) {
-        if (!jwtService.validateToken(token)) {
+        VerifiedToken verified = jwtService.verify(token);
+        if (verified == null) {
             return null;
         }
-        
-        Long userId = jwtService.extractUserId(token);
-        if (userId == null) {
-            return null;
+
+        if (writeBehind.isEnabled()) {
+            try {
+                return writeBehind.submit(text, verified.getUserId()).join();
+            } catch (CompletionException e) {
+                // Surface the failure of the insert itself, as on the synchronous path
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
         }
-        
-        Todo todo = new Todo(text, userId);
-        return todoRepository.save(todo);
+        return transactionTemplate.execute(status -> {
+            Todo todo = todoRepository.save(new Todo(text, verified.getUserId(), changeSequence.allocate(1)));
+            todoVersions.bump(verified.getUserId());
+            eventPublisher.publishEvent(new TodoCreatedEvent(verified.getUserId(), List.of(toChange(todo))));
+            return todo;
+        });
     }
-    
-    public List<Todo> getUserTodos(String token) {
-        if (!jwtService.validateToken(token)) {
+
+    /**
+     * Persists all todos in one transaction. Inserts are sent as JDBC batches, and the persistence
+     * context is flushed and cleared every {@value #BATCH_FLUSH_SIZE} rows to keep it small.
+     */
+    @Transactional
+    public List<Todo> createTodos(List<String> texts, String token) {
+        VerifiedToken verified = jwtService.verify(token);
+        if (verified == null) {
             return null;
         }
-        
-        Long userId = jwtService.extractUserId(token);
-        if (userId == null) {
-            return null;
+
+        long firstChangeSeq = changeSequence.allocate(texts.size());
+        List<Todo> saved = new ArrayList<>(texts.size());
+        for (int from = 0; from < texts.size(); from += BATCH_FLUSH_SIZE) {
+            List<Todo> chunk = new ArrayList<>(BATCH_FLUSH_SIZE);
+            for (int i = from; i < Math.min(from + BATCH_FLUSH_SIZE, texts.size()); i++) {
+                chunk.add(new Todo(texts.get(i), verified.getUserId(), firstChangeSeq + i));
+            }
+            saved.addAll(todoRepository.saveAll(chunk));
+            entityManager.flush();
+            entityManager.clear();
+        }
+        todoVersions.bump(verified.getUserId());
+        eventPublisher.publishEvent(new TodoCreatedEvent(verified.getUserId(),
+                saved.stream().map(TodoService::toChange).toList()));
+        return saved;
+    }
+
+    public List<TodoResponse> getUserTodos(String token) {
+        VerifiedToken verified = jwtService.verify(token);
+        return verified != null ? findUserTodos(verified.getUserId()) : null;
+    }
+
+    /**
+     * Returns all todos of the user, from the {@link TodoListCache} while the user's list is unchanged.
+     * Concurrent misses for the same user and list version share a single query.
+     */
+    public List<TodoResponse> findUserTodos(Long userId) {
+        return listCache.get(userId, this::queryUserTodos);
+    }
+
+    /**
+     * Returns up to {@code limit} todos of the user with an id greater than {@code cursor}, ordered by id.
+     */
+    public List<TodoResponse> getUserTodos(String token, Long cursor, int limit) {
+        VerifiedToken verified = jwtService.verify(token);
+        return verified != null ? findUserTodos(verified.getUserId(), cursor, limit) : null;
+    }
+
+    public List<TodoResponse> findUserTodos(Long userId, Long cursor, int limit) {
+        List<TodoResponse> todos = pageQueryTimer.record(() -> todoRepository.findResponsesByUserIdAfter(
+                userId, cursor != null ? cursor : 0L, Limit.of(limit)));
+        pageRows.record(todos.size());
+        return todos;
+    }
+
+    /**
+     * Returns up to {@code limit} todos of the user that changed after the watermark {@code since}, ordered
+     * by change sequence, together with the watermark to pass as {@code since} next time. Only changes up to
+     * the {@link ChangeSequence#safeWatermark() safe watermark} are returned, so a change that is still being
+     * committed is picked up by the next call instead of being skipped.
+     */
+    public TodoChangesResponse getChangesSince(Long userId, long since, int limit) {
+        long until = changeSequence.safeWatermark();
+        List<TodoChange> changes = changesQueryTimer.record(() -> todoRepository.findChangesByUserId(
+                userId, since, until, Limit.of(limit)));
+        changesRows.record(changes.size());
+        boolean hasMore = changes.size() == limit;
+        long watermark = hasMore ? changes.get(changes.size() - 1).getChangeSeq() : Math.max(since, until);
+        return new TodoChangesResponse(changes, watermark, hasMore);
+    }
+
+    /**
+     * Strong ETag of the user's current todo list; it changes whenever one of the user's todos is created.
+     */
+    public String currentETag(Long userId) {
+        return todoVersions.etag(userId);
+    }
+
+    public Long resolveUserId(String token) {
+        VerifiedToken verified = jwtService.verify(token);
+        return verified != null ? verified.getUserId() : null;
+    }
+
+    /**
+     * Feeds every todo of the user, ordered by id, to the consumer straight from a database cursor.
+     */
+    @Transactional(readOnly = true)
+    public void streamUserTodos(Long userId, Consumer<TodoResponse> consumer) {
+        long[] rows = {0};
+        try (Stream<TodoResponse> todos = todoRepository.streamResponsesByUserId(userId)) {
+            todos.forEach(todo -> {
+                consumer.accept(todo);
+                rows[0]++;
+            });
         }
-        
-        return todoRepository.findByUserId(userId);
+        streamRows.record(rows[0]);
+    }
+
+    private List<TodoResponse> queryUserTodos(Long userId) {
+        return listQueries.execute(Map.entry(userId, todoVersions.current(userId)), () -> {
+            List<TodoResponse> todos = listQueryTimer.record(() -> todoRepository.findResponsesByUserId(userId));
+            listRows.record(todos.size());
+            return todos;
+        });
+    }
+
+    private static TodoChange toChange(Todo todo) {
+        return new TodoChange(todo.getId(), todo.getText(), todo.getUserId(), todo.getChangeSeq());
+    }
+
+    private static Timer queryTimer(MeterRegistry meterRegistry, String query) {
+        return Timer.builder("todos.query")
+                .description("Time to read a user's todos from the database")
+                .tag("query", query)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static DistributionSummary rowsSummary(MeterRegistry meterRegistry, String query) {
+        return DistributionSummary.builder("todos.rows")
+                .description("Number of todos returned per read")
+                .tag("query", query)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 }
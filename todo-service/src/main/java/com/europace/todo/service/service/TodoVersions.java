@@ -0,0 +1,53 @@
+package com.europace.todo.service.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user version counter of the todo list, exposed as a strong ETag of the form
+ * {@code "<epoch>-<userId>-<version>"}. Every mutation of a user's todos bumps the version; the epoch
+ * changes on every start, so ETags handed out before a restart never match again.
+ * <p>
+ * Versions are held in memory and only see mutations made through this instance.
+ */
+@Component
+public class TodoVersions {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final ConcurrentMap<Long, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    public long current(Long userId) {
+        AtomicLong version = versions.get(userId);
+        return version != null ? version.get() : 0L;
+    }
+
+    /**
+     * Bumps the user's version. Inside a transaction the bump is deferred until after commit, so a reader
+     * can never pair the new version with a list that does not yet contain the change.
+     */
+    public void bump(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    increment(userId);
+                }
+            });
+        } else {
+            increment(userId);
+        }
+    }
+
+    public String etag(Long userId) {
+        return "\"" + epoch + "-" + userId + "-" + current(userId) + "\"";
+    }
+
+    private void increment(Long userId) {
+        versions.computeIfAbsent(userId, id -> new AtomicLong()).incrementAndGet();
+    }
+}
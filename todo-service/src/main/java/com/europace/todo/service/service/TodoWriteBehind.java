@@ -0,0 +1,241 @@
+package com.europace.todo.service.service;
+
+import com.europace.todo.service.dto.TodoChange;
+import com.europace.todo.service.entity.Todo;
+import com.europace.todo.service.repository.TodoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Optional write-behind path for {@link TodoService#createTodo}, enabled with {@code todo.write-behind.enabled}.
+ * <p>
+ * Callers put their todo into a lock-free {@link MpscRingBuffer} and wait on a future. A single flusher
+ * thread drains the buffer and writes everything it collected in one transaction (a group commit): it
+ * flushes as soon as {@code max-batch-size} todos are waiting or the oldest one has waited
+ * {@code max-latency-ms}. The futures complete once the transaction has committed. If the group rolls back,
+ * each of its todos is retried in a transaction of its own, so only the callers whose todo cannot be written fail.
+ * When the buffer is full, {@link #submit} fails fast with {@link WriteBehindQueueFullException}.
+ */
+@Component
+public class TodoWriteBehind {
+
+    private static final Logger log = LoggerFactory.getLogger(TodoWriteBehind.class);
+
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final long maxLatencyNanos;
+    private final MpscRingBuffer<PendingTodo> buffer;
+    private final TodoRepository todoRepository;
+    private final ChangeSequence changeSequence;
+    private final TodoVersions todoVersions;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final DistributionSummary batchSize;
+    private final Timer flushTimer;
+    private final Counter rejected;
+    /** Calls of {@link #submit} that may still offer a todo; the flusher keeps running until they are done. */
+    private final AtomicInteger submitting = new AtomicInteger();
+    private volatile boolean running;
+    private volatile Thread flusher;
+
+    public TodoWriteBehind(@Value("${todo.write-behind.enabled:false}") boolean enabled,
+                           @Value("${todo.write-behind.capacity:8192}") int capacity,
+                           @Value("${todo.write-behind.max-batch-size:500}") int maxBatchSize,
+                           @Value("${todo.write-behind.max-latency-ms:5}") long maxLatencyMs,
+                           TodoRepository todoRepository, ChangeSequence changeSequence, TodoVersions todoVersions,
+                           ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+        this.maxLatencyNanos = TimeUnit.MILLISECONDS.toNanos(maxLatencyMs);
+        this.buffer = new MpscRingBuffer<>(Integer.highestOneBit(Math.max(capacity, 2) * 2 - 1));
+        this.todoRepository = todoRepository;
+        this.changeSequence = changeSequence;
+        this.todoVersions = todoVersions;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = DistributionSummary.builder("todos.write_behind.batch.size")
+                .description("Todos written per group commit")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("todos.write_behind.flush")
+                .description("Time to insert and commit one group of todos")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejected = Counter.builder("todos.write_behind.rejected")
+                .description("Todos rejected because the write-behind queue was full")
+                .register(meterRegistry);
+        Gauge.builder("todos.write_behind.queue", buffer, MpscRingBuffer::size)
+                .description("Todos waiting for the next group commit")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        flusher = Thread.ofPlatform().name("todo-write-behind").daemon().start(this::run);
+        log.info("Write-behind enabled: batches of up to {} todos, at most {} ms delay",
+                maxBatchSize, TimeUnit.NANOSECONDS.toMillis(maxLatencyNanos));
+    }
+
+    /**
+     * Stops accepting todos, writes everything still queued and waits for the flusher to finish.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        Thread thread = flusher;
+        if (thread == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(thread);
+        thread.join(TimeUnit.SECONDS.toMillis(30));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues a todo for the next group commit.
+     *
+     * @return a future completed with the saved todo once its group has committed
+     * @throws WriteBehindQueueFullException if the queue is full or the flusher is not running
+     */
+    public CompletableFuture<Todo> submit(String text, Long userId) {
+        PendingTodo pending = new PendingTodo(text, userId, System.nanoTime());
+        // Registered before running is read, so a concurrent stop() cannot let the flusher exit before this offer
+        submitting.incrementAndGet();
+        boolean queued;
+        try {
+            queued = running && buffer.offer(pending);
+        } finally {
+            submitting.decrementAndGet();
+        }
+        if (!queued) {
+            rejected.increment();
+            throw new WriteBehindQueueFullException();
+        }
+        LockSupport.unpark(flusher);
+        return pending.future;
+    }
+
+    private void run() {
+        List<PendingTodo> batch = new ArrayList<>(maxBatchSize);
+        while (running || submitting.get() > 0 || buffer.size() > 0) {
+            PendingTodo first = buffer.poll();
+            if (first == null) {
+                LockSupport.parkNanos(this, maxLatencyNanos);
+                continue;
+            }
+            batch.add(first);
+            long deadline = first.enqueuedAt + maxLatencyNanos;
+            while (batch.size() < maxBatchSize) {
+                PendingTodo next = buffer.poll();
+                if (next != null) {
+                    batch.add(next);
+                    continue;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || !running) {
+                    break;
+                }
+                LockSupport.parkNanos(this, remaining);
+            }
+            flush(batch);
+            batch.clear();
+        }
+    }
+
+    private void flush(List<PendingTodo> batch) {
+        long start = System.nanoTime();
+        Todo[] saved = new Todo[batch.size()];
+        RuntimeException[] failures = new RuntimeException[batch.size()];
+        try {
+            write(batch).toArray(saved);
+        } catch (RuntimeException e) {
+            log.warn("Group commit of {} todos failed", batch.size(), e);
+            if (batch.size() == 1) {
+                failures[0] = e;
+            } else {
+                // One bad todo must not fail the other callers of its group, so each is written on its own
+                for (int i = 0; i < batch.size(); i++) {
+                    try {
+                        saved[i] = write(List.of(batch.get(i))).get(0);
+                    } catch (RuntimeException single) {
+                        failures[i] = single;
+                    }
+                }
+            }
+        }
+        flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        batchSize.record(batch.size());
+
+        for (int i = 0; i < batch.size(); i++) {
+            if (failures[i] != null) {
+                batch.get(i).future.completeExceptionally(failures[i]);
+            } else {
+                batch.get(i).future.complete(saved[i]);
+            }
+        }
+    }
+
+    private List<Todo> write(List<PendingTodo> batch) {
+        return transactionTemplate.execute(status -> {
+            long firstChangeSeq = changeSequence.allocate(batch.size());
+            List<Todo> todos = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                PendingTodo pending = batch.get(i);
+                todos.add(new Todo(pending.text, pending.userId, firstChangeSeq + i));
+            }
+            List<Todo> result = todoRepository.saveAll(todos);
+            Map<Long, List<TodoChange>> created = new LinkedHashMap<>();
+            for (Todo todo : result) {
+                created.computeIfAbsent(todo.getUserId(), userId -> new ArrayList<>())
+                        .add(new TodoChange(todo.getId(), todo.getText(), todo.getUserId(), todo.getChangeSeq()));
+            }
+            created.forEach((userId, todosOfUser) -> {
+                todoVersions.bump(userId);
+                eventPublisher.publishEvent(new TodoCreatedEvent(userId, todosOfUser));
+            });
+            return result;
+        });
+    }
+
+    private static class PendingTodo {
+        private final String text;
+        private final Long userId;
+        private final long enqueuedAt;
+        private final CompletableFuture<Todo> future = new CompletableFuture<>();
+
+        PendingTodo(String text, Long userId, long enqueuedAt) {
+            this.text = text;
+            this.userId = userId;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+}
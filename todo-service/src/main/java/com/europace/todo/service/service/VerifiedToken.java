@@ -0,0 +1,31 @@
+package com.europace.todo.service.service;
+
+import java.time.Instant;
+
+/**
+ * Result of a successful token verification: the claims we care about, read from a single parse.
+ */
+public class VerifiedToken {
+
+    private final Long userId;
+    private final Instant issuedAt;
+    private final Instant expiresAt;
+
+    public VerifiedToken(Long userId, Instant issuedAt, Instant expiresAt) {
+        this.userId = userId;
+        this.issuedAt = issuedAt;
+        this.expiresAt = expiresAt;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Instant getIssuedAt() {
+        return issuedAt;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+}
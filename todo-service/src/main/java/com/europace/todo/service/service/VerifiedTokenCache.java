@@ -0,0 +1,121 @@
+package com.europace.todo.service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Bounded cache of successfully verified tokens, keyed by the raw token string.
+ * Entries expire at the token's {@code exp} claim, so an expired token is never served from the cache.
+ * Hit, miss and eviction counts are published as {@code cache.*} metrics with {@code cache=jwt.verified-tokens}.
+ */
+@Component
+public class VerifiedTokenCache implements MeterBinder {
+
+    private static final Duration NO_EXPIRY_TTL = Duration.ofMinutes(10);
+
+    private final Cache<String, VerifiedToken> cache;
+    private final Clock clock;
+
+    @Autowired
+    public VerifiedTokenCache(@Value("${jwt.cache.max-size:10000}") long maxSize) {
+        this(maxSize, Clock.systemUTC());
+    }
+
+    VerifiedTokenCache(long maxSize, Clock clock) {
+        this.clock = clock;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String token, VerifiedToken verified, long currentTime) {
+                        return timeToLive(verified).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, VerifiedToken verified, long currentTime, long currentDuration) {
+                        return timeToLive(verified).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, VerifiedToken verified, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    public VerifiedToken get(String token) {
+        VerifiedToken verified = cache.getIfPresent(token);
+        if (verified != null && isExpired(verified)) {
+            cache.invalidate(token);
+            return null;
+        }
+        return verified;
+    }
+
+    /**
+     * Like {@link #get}, but does not count towards the hit and miss statistics.
+     */
+    public VerifiedToken peek(String token) {
+        VerifiedToken verified = cache.policy().getIfPresentQuietly(token);
+        return verified != null && !isExpired(verified) ? verified : null;
+    }
+
+    public void put(String token, VerifiedToken verified) {
+        if (!isExpired(verified)) {
+            cache.put(token, verified);
+        }
+    }
+
+    /**
+     * Forgets every cached token, such as the synthetic ones verified by the {@link WarmUpRunner}.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "jwt.verified-tokens");
+    }
+
+    public long hitCount() {
+        return cache.stats().hitCount();
+    }
+
+    public long missCount() {
+        return cache.stats().missCount();
+    }
+
+    public long evictionCount() {
+        return cache.stats().evictionCount();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private boolean isExpired(VerifiedToken verified) {
+        return verified.getExpiresAt() != null && !verified.getExpiresAt().isAfter(Instant.now(clock));
+    }
+
+    private Duration timeToLive(VerifiedToken verified) {
+        if (verified.getExpiresAt() == null) {
+            return NO_EXPIRY_TTL;
+        }
+        Duration ttl = Duration.between(Instant.now(clock), verified.getExpiresAt());
+        return ttl.isNegative() ? Duration.ZERO : ttl;
+    }
+}
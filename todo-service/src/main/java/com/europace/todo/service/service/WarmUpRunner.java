@@ -0,0 +1,114 @@
+package com.europace.todo.service.service;
+
+import com.europace.todo.service.dto.TodoRequest;
+import com.europace.todo.service.dto.TodoResponse;
+import com.europace.todo.service.repository.TodoRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optional JIT warm-up before the service reports ready. Spring Boot only switches the readiness state to
+ * {@code ACCEPTING_TRAFFIC} once every {@link ApplicationRunner} has returned, so while this runs
+ * {@code /actuator/health/readiness} answers 503 and a load balancer keeps traffic away.
+ * <p>
+ * Each iteration runs the hot paths of {@code GET} and {@code POST /todos} with synthetic data: verifying a
+ * freshly signed token, reading a {@link TodoRequest}, the per-user list query and writing a list of
+ * {@link TodoResponse}s. It stops after {@code warmup.iterations} iterations or {@code warmup.max-duration-ms},
+ * whichever comes first. The list query runs for a user id no todo belongs to, so no data is read or written.
+ */
+@Component
+public class WarmUpRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmUpRunner.class);
+
+    static final long SYNTHETIC_USER_ID = -1;
+    private static final int SYNTHETIC_LIST_SIZE = 20;
+    private static final long TOKEN_LIFETIME_MS = TimeUnit.MINUTES.toMillis(5);
+
+    private final boolean enabled;
+    private final int iterations;
+    private final long maxDurationNanos;
+    private final SecretKey signingKey;
+    private final JwtService jwtService;
+    private final VerifiedTokenCache tokenCache;
+    private final TodoRepository todoRepository;
+    private final ObjectMapper objectMapper;
+
+    public WarmUpRunner(@Value("${warmup.enabled:false}") boolean enabled,
+                        @Value("${warmup.iterations:20000}") int iterations,
+                        @Value("${warmup.max-duration-ms:30000}") long maxDurationMs,
+                        @Value("${jwt.secret}") String secretKey,
+                        JwtService jwtService,
+                        VerifiedTokenCache tokenCache,
+                        TodoRepository todoRepository,
+                        ObjectMapper objectMapper) {
+        this.enabled = enabled;
+        this.iterations = iterations;
+        this.maxDurationNanos = TimeUnit.MILLISECONDS.toNanos(maxDurationMs);
+        this.signingKey = Keys.hmacShaKeyFor(secretKey.getBytes());
+        this.jwtService = jwtService;
+        this.tokenCache = tokenCache;
+        this.todoRepository = todoRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        int completed = 0;
+        try {
+            while (completed < iterations && System.nanoTime() - start < maxDurationNanos) {
+                iteration(completed);
+                completed++;
+            }
+        } catch (RuntimeException | IOException e) {
+            // A failed warm-up only costs latency; it must not keep the service from starting
+            log.warn("Warm-up stopped after {} iterations", completed, e);
+        } finally {
+            tokenCache.invalidateAll();
+        }
+        log.info("Warm-up ran {} iterations in {} ms", completed, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private void iteration(int i) throws IOException {
+        // A distinct token per iteration, so verification parses it instead of answering from the cache
+        String token = Jwts.builder()
+                .subject(Long.toString(SYNTHETIC_USER_ID))
+                .id(Integer.toString(i))
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + TOKEN_LIFETIME_MS))
+                .signWith(signingKey)
+                .compact();
+        Long userId = jwtService.extractUserId(token);
+        if (userId == null) {
+            throw new IllegalStateException("The synthetic token was rejected");
+        }
+
+        byte[] body = ("{\"text\":\"Warm-up todo " + i + "\"}").getBytes(StandardCharsets.UTF_8);
+        TodoRequest request = objectMapper.readValue(body, TodoRequest.class);
+
+        List<TodoResponse> todos = new ArrayList<>(todoRepository.findResponsesByUserId(userId));
+        for (int id = 0; id < SYNTHETIC_LIST_SIZE; id++) {
+            todos.add(new TodoResponse((long) id, request.getText(), userId));
+        }
+        objectMapper.writeValueAsBytes(todos);
+    }
+}
@@ -0,0 +1,11 @@
+package com.europace.todo.service.service;
+
+/**
+ * Thrown when a todo cannot be queued for write-behind because the ring buffer is full or the flusher has stopped.
+ */
+public class WriteBehindQueueFullException extends RuntimeException {
+
+    public WriteBehindQueueFullException() {
+        super("Write-behind queue is full");
+    }
+}
@@ -0,0 +1,16 @@
+-- Schema for the persistent profile. Must stay in sync with the Todo entity; every statement is idempotent.
+create sequence if not exists todos_seq start with 1 increment by 50;
+
+create table if not exists todos (
+    id bigint not null,
+    text varchar(255) not null,
+    user_id bigint not null,
+    change_seq bigint not null,
+    primary key (id)
+);
+
+-- Stores created before change_seq existed: their todos get change sequence 1, so a sync from 0 still returns them.
+alter table todos add column if not exists change_seq bigint default 1 not null;
+
+create index if not exists idx_todos_user_id_id on todos (user_id, id);
+create index if not exists idx_todos_user_id_change_seq on todos (user_id, change_seq);
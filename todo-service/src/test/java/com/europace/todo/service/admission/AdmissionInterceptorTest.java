@@ -0,0 +1,103 @@
+package com.europace.todo.service.admission;
+
+import com.europace.todo.service.service.JwtService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AdmissionInterceptorTest {
+
+    @Mock
+    private JwtService jwtService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void preHandle_userOverRate_shouldReturn429WithRetryAfter() {
+        AdmissionInterceptor interceptor = interceptor(1, 1, false);
+        when(jwtService.identify("alice")).thenReturn(1L);
+        when(jwtService.identify("bob")).thenReturn(2L);
+
+        assertEquals(200, handle(interceptor, "POST", "/todos", "alice").getStatus());
+        MockHttpServletResponse rejected = handle(interceptor, "POST", "/todos", "alice");
+
+        assertEquals(429, rejected.getStatus());
+        assertEquals("1", rejected.getHeader("Retry-After"));
+        assertEquals(200, handle(interceptor, "POST", "/todos", "bob").getStatus());
+        assertEquals(200, handle(interceptor, "GET", "/todos", "alice").getStatus());
+        assertEquals(1.0, meterRegistry.get("admission.rejected").tag("endpoint", "create")
+                .tag("reason", "rate_limit").counter().count());
+    }
+
+    @Test
+    void preHandle_invalidToken_shouldShareIpBucket() {
+        AdmissionInterceptor interceptor = interceptor(1, 1, false);
+
+        assertEquals(200, handle(interceptor, "POST", "/todos", "forged-1").getStatus());
+        assertEquals(429, handle(interceptor, "POST", "/todos", "forged-2").getStatus());
+    }
+
+    @Test
+    void preHandle_atConcurrencyLimit_shouldReturn503UntilReleased() {
+        AdmissionInterceptor interceptor = interceptor(1000, 1000, true);
+        MockHttpServletRequest first = request("GET", "/other", null);
+
+        assertTrue(interceptor.preHandle(first, new MockHttpServletResponse(), null));
+        MockHttpServletResponse rejected = handle(interceptor, "GET", "/other", null);
+        assertEquals(503, rejected.getStatus());
+        assertEquals("1", rejected.getHeader("Retry-After"));
+
+        interceptor.afterCompletion(first, new MockHttpServletResponse(), null, null);
+        assertEquals(200, handle(interceptor, "GET", "/other", null).getStatus());
+        assertEquals(1.0, meterRegistry.get("admission.rejected").tag("reason", "concurrency").counter().count());
+    }
+
+    @Test
+    void afterConcurrentHandlingStarted_shouldFreeSlotOfLongLivedRequest() {
+        AdmissionInterceptor interceptor = interceptor(1000, 1000, true);
+        MockHttpServletRequest stream = request("GET", "/todos/stream", null);
+
+        assertTrue(interceptor.preHandle(stream, new MockHttpServletResponse(), null));
+        interceptor.afterConcurrentHandlingStarted(stream, new MockHttpServletResponse(), null);
+
+        assertEquals(0.0, meterRegistry.get("admission.concurrency.in.flight").gauge().value());
+        interceptor.afterCompletion(stream, new MockHttpServletResponse(), null, null);
+        assertEquals(0.0, meterRegistry.get("admission.concurrency.in.flight").gauge().value());
+    }
+
+    private AdmissionInterceptor interceptor(double permitsPerSecond, int burst, boolean concurrency) {
+        AdmissionProperties properties = new AdmissionProperties();
+        AdmissionProperties.Endpoint create = new AdmissionProperties.Endpoint();
+        create.setMethod("POST");
+        create.setPath("/todos");
+        create.setPermitsPerSecond(permitsPerSecond);
+        create.setBurst(burst);
+        properties.getEndpoints().put("create", create);
+        properties.getConcurrency().setEnabled(concurrency);
+        properties.getConcurrency().setInitialLimit(1);
+        properties.getConcurrency().setMinLimit(1);
+        return new AdmissionInterceptor(properties, jwtService, meterRegistry);
+    }
+
+    private static MockHttpServletResponse handle(AdmissionInterceptor interceptor, String method, String path, String token) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        interceptor.preHandle(request(method, path, token), response, null);
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String method, String path, String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        if (token != null) {
+            request.addHeader("Authorization", "Bearer " + token);
+        }
+        return request;
+    }
+}
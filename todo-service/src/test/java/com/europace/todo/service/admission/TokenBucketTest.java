@@ -0,0 +1,41 @@
+package com.europace.todo.service.admission;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void tryAcquire_shouldAllowBurstThenRefillAtRate() {
+        TokenBucket bucket = new TokenBucket(2, 3);
+        long now = 5 * SECOND;
+
+        assertEquals(0, bucket.tryAcquire(now));
+        assertEquals(0, bucket.tryAcquire(now));
+        assertEquals(0, bucket.tryAcquire(now));
+        assertEquals(SECOND / 2, bucket.tryAcquire(now));
+
+        assertEquals(0, bucket.tryAcquire(now + SECOND / 2));
+        assertTrue(bucket.tryAcquire(now + SECOND / 2) > 0);
+    }
+
+    @Test
+    void tryAcquire_afterIdlePeriod_shouldNotExceedBurst() {
+        TokenBucket bucket = new TokenBucket(10, 2);
+
+        assertEquals(0, bucket.tryAcquire(0));
+        long later = 60 * SECOND;
+        assertEquals(0, bucket.tryAcquire(later));
+        assertEquals(0, bucket.tryAcquire(later));
+        assertTrue(bucket.tryAcquire(later) > 0);
+    }
+
+    @Test
+    void constructor_invalidRate_shouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(1, 0));
+    }
+}
@@ -0,0 +1,41 @@
+package com.europace.todo.service.config;
+
+import com.europace.todo.service.dto.TodoChange;
+import com.europace.todo.service.dto.TodoResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NativeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    NativeHintsTest() {
+        new NativeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void shouldRegisterJjwtImplementationClasses() {
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of("io.jsonwebtoken.impl.DefaultJwtParserBuilder")).test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("META-INF/services/io.jsonwebtoken.io.Deserializer")
+                .test(hints));
+    }
+
+    @Test
+    void shouldRegisterConstructorsOfQueryProjections() throws NoSuchMethodException {
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onConstructor(TodoResponse.class.getConstructor(Long.class, String.class, Long.class)).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onConstructor(TodoChange.class.getConstructor(Long.class, String.class, Long.class, Long.class))
+                .test(hints));
+    }
+
+    @Test
+    void shouldRegisterSchemaScript() {
+        assertTrue(RuntimeHintsPredicates.resource().forResource("db/todo-schema.sql").test(hints));
+    }
+}
@@ -1,8 +1,13 @@
 package com.europace.todo.service.controller;
 
+import com.europace.todo.service.dto.TodoChange;
+import com.europace.todo.service.dto.TodoChangesResponse;
 import com.europace.todo.service.dto.TodoRequest;
+import com.europace.todo.service.dto.TodoResponse;
 import com.europace.todo.service.entity.Todo;
+import com.europace.todo.service.service.TodoEventHub;
 import com.europace.todo.service.service.TodoService;
+import com.europace.todo.service.service.WriteBehindQueueFullException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,16 +15,31 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.Collections;
 import java.util.List;
 
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-@WebMvcTest(TodoController.class)
+@WebMvcTest(controllers = TodoController.class, properties = "admission.enabled=false")
 class TodoControllerTest {
     
     @Autowired
@@ -28,6 +48,9 @@ class TodoControllerTest {
     @MockitoBean
     private TodoService todoService;
     
+    @MockitoBean
+    private TodoEventHub todoEventHub;
+    
     @Autowired
     private ObjectMapper objectMapper;
     
@@ -72,20 +95,35 @@ class TodoControllerTest {
                 .andExpect(status().isUnauthorized());
     }
     
+    @Test
+    void createTodo_writeBehindQueueFull_shouldReturn503() throws Exception {
+        TodoRequest request = new TodoRequest("Learn Spring Boot");
+        
+        when(todoService.createTodo("Learn Spring Boot", "validtoken")).thenThrow(new WriteBehindQueueFullException());
+        
+        mockMvc.perform(post("/todos")
+                .header("Authorization", "Bearer validtoken")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+    
     @Test
     void getTodos_validToken_shouldReturn200() throws Exception {
-        List<Todo> todos = List.of(
-                new Todo("Learn Spring Boot", 1L),
-                new Todo("Build REST API", 1L)
+        List<TodoResponse> todos = List.of(
+                new TodoResponse(1L, "Learn Spring Boot", 1L),
+                new TodoResponse(2L, "Build REST API", 1L)
         );
-        todos.get(0).setId(1L);
-        todos.get(1).setId(2L);
         
-        when(todoService.getUserTodos("validtoken")).thenReturn(todos);
+        when(todoService.resolveUserId("validtoken")).thenReturn(1L);
+        when(todoService.currentETag(1L)).thenReturn("\"e-1-3\"");
+        when(todoService.findUserTodos(1L)).thenReturn(todos);
         
         mockMvc.perform(get("/todos")
                 .header("Authorization", "Bearer validtoken"))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"e-1-3\""))
                 .andExpect(jsonPath("$").isArray())
                 .andExpect(jsonPath("$.length()").value(2))
                 .andExpect(jsonPath("$[0].text").value("Learn Spring Boot"))
@@ -100,10 +138,296 @@ class TodoControllerTest {
     
     @Test
     void getTodos_invalidToken_shouldReturn401() throws Exception {
-        when(todoService.getUserTodos("invalidtoken")).thenReturn(null);
+        when(todoService.resolveUserId("invalidtoken")).thenReturn(null);
+        
+        mockMvc.perform(get("/todos")
+                .header("Authorization", "Bearer invalidtoken"))
+                .andExpect(status().isUnauthorized());
+    }
+    
+    @Test
+    void getTodos_matchingETag_shouldReturn304WithoutQuery() throws Exception {
+        when(todoService.resolveUserId("validtoken")).thenReturn(1L);
+        when(todoService.currentETag(1L)).thenReturn("\"e-1-3\"");
+        
+        mockMvc.perform(get("/todos")
+                .header("Authorization", "Bearer validtoken")
+                .header("If-None-Match", "\"e-1-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"e-1-3\""))
+                .andExpect(content().string(""));
+        
+        verify(todoService, never()).findUserTodos(any());
+        verify(todoService, never()).findUserTodos(any(), any(), anyInt());
+    }
+    
+    @Test
+    void getTodos_staleETag_shouldReturn200() throws Exception {
+        when(todoService.resolveUserId("validtoken")).thenReturn(1L);
+        when(todoService.currentETag(1L)).thenReturn("\"e-1-4\"");
+        when(todoService.findUserTodos(1L)).thenReturn(List.of(new TodoResponse(1L, "Learn Spring Boot", 1L)));
+        
+        mockMvc.perform(get("/todos")
+                .header("Authorization", "Bearer validtoken")
+                .header("If-None-Match", "\"e-1-3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"e-1-4\""))
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+    
+    @Test
+    void getTodos_withLimit_shouldReturnPageAndNextCursor() throws Exception {
+        List<TodoResponse> todos = List.of(
+                new TodoResponse(11L, "Learn Spring Boot", 1L),
+                new TodoResponse(12L, "Build REST API", 1L)
+        );
+        
+        when(todoService.resolveUserId("validtoken")).thenReturn(1L);
+        when(todoService.currentETag(1L)).thenReturn("\"e-1-3\"");
+        when(todoService.findUserTodos(1L, 10L, 2)).thenReturn(todos);
+        
+        mockMvc.perform(get("/todos")
+                .param("cursor", "10")
+                .param("limit", "2")
+                .header("Authorization", "Bearer validtoken"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "12"))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(11));
+    }
+    
+    @Test
+    void getTodos_lastPage_shouldOmitNextCursor() throws Exception {
+        TodoResponse todo = new TodoResponse(13L, "Learn Spring Boot", 1L);
         
+        when(todoService.resolveUserId("validtoken")).thenReturn(1L);
+        when(todoService.currentETag(1L)).thenReturn("\"e-1-3\"");
+        when(todoService.findUserTodos(1L, 12L, 100)).thenReturn(List.of(todo));
+        
+        mockMvc.perform(get("/todos")
+                .param("cursor", "12")
+                .header("Authorization", "Bearer validtoken"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+    
+    @Test
+    void getTodos_invalidLimit_shouldReturn400() throws Exception {
         mockMvc.perform(get("/todos")
+                .param("limit", "0")
+                .header("Authorization", "Bearer validtoken"))
+                .andExpect(status().isBadRequest());
+    }
+    
+    @Test
+    void getChanges_validToken_shouldReturnChangesAndWatermark() throws Exception {
+        TodoChangesResponse changes = new TodoChangesResponse(
+                List.of(new TodoChange(3L, "Build REST API", 1L, 42L)), 50L, false);
+        
+        when(todoService.resolveUserId("validtoken")).thenReturn(1L);
+        when(todoService.getChangesSince(1L, 40L, 1000)).thenReturn(changes);
+        
+        mockMvc.perform(get("/todos/changes")
+                .param("since", "40")
+                .header("Authorization", "Bearer validtoken"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes.length()").value(1))
+                .andExpect(jsonPath("$.changes[0].changeSeq").value(42))
+                .andExpect(jsonPath("$.watermark").value(50))
+                .andExpect(jsonPath("$.hasMore").value(false));
+    }
+    
+    @Test
+    void getChanges_negativeWatermark_shouldReturn400() throws Exception {
+        mockMvc.perform(get("/todos/changes")
+                .param("since", "-1")
+                .header("Authorization", "Bearer validtoken"))
+                .andExpect(status().isBadRequest());
+    }
+    
+    @Test
+    void getChanges_invalidToken_shouldReturn401() throws Exception {
+        when(todoService.resolveUserId("invalidtoken")).thenReturn(null);
+        
+        mockMvc.perform(get("/todos/changes")
                 .header("Authorization", "Bearer invalidtoken"))
                 .andExpect(status().isUnauthorized());
     }
+    
+    @Test
+    void subscribe_validToken_shouldOpenEventStream() throws Exception {
+        when(todoService.resolveUserId("validtoken")).thenReturn(1L);
+        when(todoEventHub.subscribe(1L)).thenReturn(new SseEmitter());
+        
+        mockMvc.perform(get("/todos/stream")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .header("Authorization", "Bearer validtoken"))
+                .andExpect(request().asyncStarted())
+                .andExpect(status().isOk());
+        
+        verify(todoEventHub).subscribe(1L);
+    }
+    
+    @Test
+    void subscribe_invalidToken_shouldReturn401() throws Exception {
+        when(todoService.resolveUserId("invalidtoken")).thenReturn(null);
+        
+        mockMvc.perform(get("/todos/stream")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .header("Authorization", "Bearer invalidtoken"))
+                .andExpect(status().isUnauthorized());
+        
+        verify(todoEventHub, never()).subscribe(any());
+    }
+    
+    @Test
+    void subscribe_tooManyStreams_shouldReturn429() throws Exception {
+        when(todoService.resolveUserId("validtoken")).thenReturn(1L);
+        when(todoEventHub.subscribe(1L)).thenReturn(null);
+        
+        mockMvc.perform(get("/todos/stream")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .header("Authorization", "Bearer validtoken"))
+                .andExpect(status().isTooManyRequests());
+    }
+    
+    @Test
+    void streamTodos_validToken_shouldWriteNdjson() throws Exception {
+        TodoResponse first = new TodoResponse(1L, "Learn Spring Boot", 1L);
+        TodoResponse second = new TodoResponse(2L, "Build REST API", 1L);
+        
+        when(todoService.resolveUserId("validtoken")).thenReturn(1L);
+        doAnswer(invocation -> {
+            Consumer<TodoResponse> consumer = invocation.getArgument(1);
+            consumer.accept(first);
+            consumer.accept(second);
+            return null;
+        }).when(todoService).streamUserTodos(eq(1L), any());
+        
+        var result = mockMvc.perform(get("/todos")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .header("Authorization", "Bearer validtoken"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(
+                        "{\"id\":1,\"text\":\"Learn Spring Boot\",\"userId\":1}\n"
+                                + "{\"id\":2,\"text\":\"Build REST API\",\"userId\":1}\n"));
+    }
+    
+    @Test
+    void streamTodos_invalidToken_shouldReturn401() throws Exception {
+        when(todoService.resolveUserId("invalidtoken")).thenReturn(null);
+        
+        mockMvc.perform(get("/todos")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .header("Authorization", "Bearer invalidtoken"))
+                .andExpect(status().isUnauthorized());
+        
+        verify(todoService, never()).streamUserTodos(any(), any());
+    }
+    
+    @Test
+    void createTodos_validToken_shouldReturn201WithIds() throws Exception {
+        List<TodoRequest> requests = List.of(new TodoRequest("Learn Spring Boot"), new TodoRequest("Build REST API"));
+        Todo first = new Todo("Learn Spring Boot", 1L);
+        first.setId(1L);
+        Todo second = new Todo("Build REST API", 1L);
+        second.setId(2L);
+        
+        when(todoService.createTodos(List.of("Learn Spring Boot", "Build REST API"), "validtoken"))
+                .thenReturn(List.of(first, second));
+        
+        mockMvc.perform(post("/todos/batch")
+                .header("Authorization", "Bearer validtoken")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.ids.length()").value(2))
+                .andExpect(jsonPath("$.ids[0]").value(1))
+                .andExpect(jsonPath("$.ids[1]").value(2));
+    }
+    
+    @Test
+    void createTodos_tooManyItems_shouldReturn413() throws Exception {
+        List<TodoRequest> requests = Collections.nCopies(10_001, new TodoRequest("Learn Spring Boot"));
+        
+        mockMvc.perform(post("/todos/batch")
+                .header("Authorization", "Bearer validtoken")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isPayloadTooLarge());
+        
+        verify(todoService, never()).createTodos(anyList(), any());
+    }
+    
+    @Test
+    void createTodos_invalidToken_shouldReturn401() throws Exception {
+        when(todoService.createTodos(List.of("Learn Spring Boot"), "invalidtoken")).thenReturn(null);
+        
+        mockMvc.perform(post("/todos/batch")
+                .header("Authorization", "Bearer invalidtoken")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(new TodoRequest("Learn Spring Boot")))))
+                .andExpect(status().isUnauthorized());
+    }
+    
+    @Test
+    void createTodos_nullItem_shouldReturn400() throws Exception {
+        mockMvc.perform(post("/todos/batch")
+                .header("Authorization", "Bearer validtoken")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"text\":\"Learn Spring Boot\"},null]"))
+                .andExpect(status().isBadRequest());
+        
+        verify(todoService, never()).createTodos(anyList(), any());
+    }
+    
+    @Test
+    void createTodos_itemWithoutText_shouldReturn400() throws Exception {
+        mockMvc.perform(post("/todos/batch")
+                .header("Authorization", "Bearer validtoken")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"text\":\"Learn Spring Boot\"},{\"text\":null}]"))
+                .andExpect(status().isBadRequest());
+        
+        verify(todoService, never()).createTodos(anyList(), any());
+    }
+    
+    @Test
+    void createTodos_blankText_shouldReturn400() throws Exception {
+        mockMvc.perform(post("/todos/batch")
+                .header("Authorization", "Bearer validtoken")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"text\":\"Learn Spring Boot\"},{\"text\":\" \"}]"))
+                .andExpect(status().isBadRequest());
+        
+        verify(todoService, never()).createTodos(anyList(), any());
+    }
+    
+    @Test
+    void createTodo_missingText_shouldReturn400() throws Exception {
+        mockMvc.perform(post("/todos")
+                .header("Authorization", "Bearer validtoken")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}"))
+                .andExpect(status().isBadRequest());
+        
+        verify(todoService, never()).createTodo(any(), any());
+    }
+    
+    @Test
+    void createTodo_textTooLong_shouldReturn400() throws Exception {
+        mockMvc.perform(post("/todos")
+                .header("Authorization", "Bearer validtoken")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new TodoRequest("x".repeat(256)))))
+                .andExpect(status().isBadRequest());
+        
+        verify(todoService, never()).createTodo(any(), any());
+    }
 }
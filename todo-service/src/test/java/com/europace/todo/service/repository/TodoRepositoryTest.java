@@ -0,0 +1,96 @@
+package com.europace.todo.service.repository;
+
+import com.europace.todo.service.dto.TodoChange;
+import com.europace.todo.service.dto.TodoResponse;
+import com.europace.todo.service.entity.Todo;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class TodoRepositoryTest {
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        todoRepository.saveAll(List.of(
+                new Todo("Learn Spring Boot", 1L, 1L),
+                new Todo("Walk the dog", 2L, 2L),
+                new Todo("Build REST API", 1L, 3L),
+                new Todo("Write tests", 1L, 4L)));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findResponsesByUserId_shouldReturnOnlyUsersTodosInIdOrder() {
+        List<TodoResponse> todos = todoRepository.findResponsesByUserId(1L);
+
+        assertEquals(List.of("Learn Spring Boot", "Build REST API", "Write tests"),
+                todos.stream().map(TodoResponse::getText).toList());
+        assertTrue(todos.stream().allMatch(todo -> todo.getUserId() == 1L));
+    }
+
+    @Test
+    void findResponsesByUserIdAfter_shouldContinueAfterCursor() {
+        Long firstId = todoRepository.findResponsesByUserId(1L).get(0).getId();
+
+        List<TodoResponse> page = todoRepository.findResponsesByUserIdAfter(1L, firstId, Limit.of(1));
+
+        assertEquals(1, page.size());
+        assertEquals("Build REST API", page.get(0).getText());
+    }
+
+    @Test
+    void streamResponsesByUserId_shouldStreamUsersTodosInIdOrder() {
+        try (Stream<TodoResponse> todos = todoRepository.streamResponsesByUserId(2L)) {
+            assertEquals(List.of("Walk the dog"), todos.map(TodoResponse::getText).toList());
+        }
+    }
+
+    @Test
+    void findChangesByUserId_shouldReturnChangesWithinWatermarksInSequenceOrder() {
+        List<TodoChange> changes = todoRepository.findChangesByUserId(1L, 1L, 3L, Limit.of(10));
+
+        assertEquals(List.of("Build REST API"), changes.stream().map(TodoChange::getText).toList());
+        assertEquals(3L, changes.get(0).getChangeSeq());
+    }
+
+    @Test
+    void findChangesByUserId_shouldHonourLimit() {
+        List<TodoChange> changes = todoRepository.findChangesByUserId(1L, 0L, 10L, Limit.of(2));
+
+        assertEquals(List.of(1L, 3L), changes.stream().map(TodoChange::getChangeSeq).toList());
+    }
+
+    @Test
+    void userTodoQueries_shouldUseUserIdIndex() {
+        assertUsesIndex("IDX_TODOS_USER_ID_ID", "select id, text, user_id from todos where user_id = 1 order by id");
+        assertUsesIndex("IDX_TODOS_USER_ID_ID", "select id, text, user_id from todos where user_id = 1 and id > 5 order by id");
+    }
+
+    @Test
+    void changesQuery_shouldUseChangeSeqIndex() {
+        assertUsesIndex("IDX_TODOS_USER_ID_CHANGE_SEQ", "select id, text, user_id, change_seq from todos "
+                + "where user_id = 1 and change_seq > 5 and change_seq <= 9 order by change_seq");
+    }
+
+    private void assertUsesIndex(String index, String sql) {
+        String plan = (String) entityManager.createNativeQuery("explain " + sql).getSingleResult();
+
+        assertTrue(plan.toUpperCase().contains(index), plan);
+    }
+}
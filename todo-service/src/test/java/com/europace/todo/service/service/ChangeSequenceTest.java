@@ -0,0 +1,81 @@
+package com.europace.todo.service.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeSequenceTest {
+
+    private final Instant now = Instant.parse("2026-01-01T00:00:00Z");
+    private final long nowMicros = now.getEpochSecond() * 1_000_000;
+
+    @BeforeEach
+    void setUp() {
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void allocate_shouldStartAtClockAndStayStrictlyIncreasing() {
+        ChangeSequence sequence = new ChangeSequence(Clock.fixed(now, ZoneOffset.UTC));
+
+        assertEquals(nowMicros, sequence.allocate(3));
+        assertEquals(nowMicros + 3, sequence.allocate(1));
+    }
+
+    @Test
+    void safeWatermark_shouldStayBelowOldestBlockInFlight() {
+        ChangeSequence sequence = new ChangeSequence(Clock.fixed(now, ZoneOffset.UTC));
+
+        long first = sequence.allocate(2);
+        List<TransactionSynchronization> firstTransaction = takeSynchronizations();
+        sequence.allocate(1);
+        List<TransactionSynchronization> secondTransaction = takeSynchronizations();
+
+        assertEquals(first - 1, sequence.safeWatermark());
+
+        secondTransaction.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        assertEquals(first - 1, sequence.safeWatermark());
+
+        firstTransaction.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        assertEquals(first + 2, sequence.safeWatermark());
+    }
+
+    @Test
+    void safeWatermark_freshInstance_shouldCoverChangesBeforeStart() {
+        ChangeSequence sequence = new ChangeSequence(Clock.fixed(now, ZoneOffset.UTC));
+
+        assertEquals(nowMicros - 1, sequence.safeWatermark());
+        assertTrue(sequence.safeWatermark() >= 1, "backfilled rows have change_seq = 1");
+    }
+
+    @Test
+    void allocate_outsideTransaction_shouldFail() {
+        TransactionSynchronizationManager.clearSynchronization();
+        ChangeSequence sequence = new ChangeSequence(Clock.fixed(now, ZoneOffset.UTC));
+
+        assertThrows(IllegalStateException.class, () -> sequence.allocate(1));
+
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    private static List<TransactionSynchronization> takeSynchronizations() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.initSynchronization();
+        return synchronizations;
+    }
+}
@@ -0,0 +1,87 @@
+package com.europace.todo.service.service;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtServiceTest {
+
+    private static final String SECRET = "mySecretKey123456789mySecretKey123456789";
+
+    private VerifiedTokenCache tokenCache;
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        tokenCache = new VerifiedTokenCache(100);
+        jwtService = new JwtService(SECRET, tokenCache, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void shouldVerifyValidToken() {
+        VerifiedToken verified = jwtService.verify(token(123L, 60_000L));
+
+        assertNotNull(verified);
+        assertEquals(123L, verified.getUserId());
+        assertEquals(123L, jwtService.extractUserId(token(123L, 60_000L)));
+    }
+
+    @Test
+    void shouldAnswerRepeatedTokenFromCache() {
+        String token = token(123L, 60_000L);
+
+        jwtService.verify(token);
+        jwtService.verify(token);
+        jwtService.verify(token);
+
+        assertEquals(2, tokenCache.hitCount());
+        assertEquals(1, tokenCache.size());
+    }
+
+    @Test
+    void shouldRejectExpiredToken() {
+        assertNull(jwtService.verify(token(123L, -1000L)));
+        assertEquals(0, tokenCache.size());
+    }
+
+    @Test
+    void shouldRejectInvalidToken() {
+        assertNull(jwtService.verify("invalid.token.here"));
+        assertFalse(jwtService.validateToken(null));
+    }
+
+    @Test
+    void identify_shouldNotCountAsVerification() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        jwtService = new JwtService(SECRET, tokenCache, registry);
+        String token = token(123L, 60_000L);
+
+        assertEquals(123L, jwtService.identify(token));
+        assertNull(jwtService.identify("invalid.token.here"));
+        assertEquals(0, tokenCache.size());
+
+        jwtService.verify(token);
+        assertEquals(123L, jwtService.identify(token));
+        jwtService.verify(token);
+
+        assertEquals(1, registry.get("jwt.verification").tag("result", "valid").timer().count());
+        assertEquals(1, registry.get("jwt.verification").tag("result", "cached").timer().count());
+        assertEquals(0, registry.get("jwt.verification").tag("result", "invalid").timer().count());
+        assertEquals(1, tokenCache.hitCount());
+    }
+
+    private String token(Long userId, long validForMillis) {
+        return Jwts.builder()
+                .subject(userId.toString())
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + validForMillis))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .compact();
+    }
+}
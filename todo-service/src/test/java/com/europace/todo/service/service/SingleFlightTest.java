@@ -0,0 +1,84 @@
+package com.europace.todo.service.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final Counter coalesced = new SimpleMeterRegistry().counter("coalesced");
+    private final SingleFlight<Long, String> singleFlight = new SingleFlight<>(coalesced);
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void execute_concurrentSameKey_shouldShareOneCall() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = executor.submit(() -> singleFlight.execute(1L, () -> {
+            calls.incrementAndGet();
+            started.countDown();
+            await(release);
+            return "todos";
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Future<String> follower = executor.submit(() -> singleFlight.execute(1L, () -> {
+            calls.incrementAndGet();
+            return "other";
+        }));
+        while (coalesced.count() == 0) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        assertEquals("todos", leader.get(5, TimeUnit.SECONDS));
+        assertEquals("todos", follower.get(5, TimeUnit.SECONDS));
+        assertEquals(1, calls.get());
+        assertEquals(0, singleFlight.inFlight());
+    }
+
+    @Test
+    void execute_sequentialCalls_shouldNotReuseResult() {
+        AtomicInteger calls = new AtomicInteger();
+
+        singleFlight.execute(1L, () -> "first " + calls.incrementAndGet());
+        String second = singleFlight.execute(1L, () -> "second " + calls.incrementAndGet());
+
+        assertEquals("second 2", second);
+        assertEquals(0.0, coalesced.count());
+    }
+
+    @Test
+    void execute_failedCall_shouldRethrowAndForgetKey() {
+        IllegalStateException failure = new IllegalStateException("database down");
+
+        assertSame(failure, assertThrows(IllegalStateException.class,
+                () -> singleFlight.execute(1L, () -> { throw failure; })));
+        assertEquals("recovered", singleFlight.execute(1L, () -> "recovered"));
+        assertEquals(0, singleFlight.inFlight());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
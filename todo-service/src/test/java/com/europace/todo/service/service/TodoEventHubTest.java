@@ -0,0 +1,185 @@
+package com.europace.todo.service.service;
+
+import com.europace.todo.service.dto.TodoChange;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TodoEventHubTest {
+
+    private final List<RecordingEmitter> emitters = new ArrayList<>();
+    private SimpleMeterRegistry registry;
+    private TodoEventHub hub;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        hub = hub(new DirectExecutorService());
+    }
+
+    @Test
+    void onTodoCreated_shouldPushToAllConnectionsOfUserOnly() {
+        hub.subscribe(1L);
+        hub.subscribe(1L);
+        hub.subscribe(2L);
+
+        hub.onTodoCreated(new TodoCreatedEvent(1L, List.of(new TodoChange(5L, "Learn Spring Boot", 1L, 42L))));
+
+        assertEquals(1, emitters.get(0).sent);
+        assertEquals(1, emitters.get(1).sent);
+        assertEquals(0, emitters.get(2).sent);
+        assertEquals(2.0, registry.get("todos.stream.events").tag("type", "todo").counter().count());
+    }
+
+    @Test
+    void onTodoCreated_batchLargerThanPendingLimit_shouldBeQueuedAsOneEntry() {
+        DeferredExecutorService sender = new DeferredExecutorService();
+        hub = hub(sender);
+        hub.subscribe(1L);
+        List<TodoChange> batch = LongStream.rangeClosed(1, 10)
+                .mapToObj(id -> new TodoChange(id, "Todo " + id, 1L, 100 + id))
+                .toList();
+
+        hub.onTodoCreated(new TodoCreatedEvent(1L, batch));
+        hub.onTodoCreated(new TodoCreatedEvent(1L, batch));
+        sender.runAll();
+
+        assertEquals(1, hub.connectionCount());
+        assertEquals(20, emitters.get(0).sent);
+        assertEquals(20.0, registry.get("todos.stream.events").tag("type", "todo").counter().count());
+    }
+
+    @Test
+    void onTodoCreated_clientTooFarBehind_shouldBeDisconnected() {
+        hub = hub(new DeferredExecutorService());
+        hub.subscribe(1L);
+
+        for (long id = 1; id <= 4; id++) {
+            hub.onTodoCreated(new TodoCreatedEvent(1L, List.of(new TodoChange(id, "Todo " + id, 1L, 100 + id))));
+        }
+
+        assertEquals(0, hub.connectionCount());
+    }
+
+    @Test
+    void subscribe_shouldLimitConnectionsPerUser() {
+        assertNotNull(hub.subscribe(1L));
+        assertNotNull(hub.subscribe(1L));
+        assertNull(hub.subscribe(1L));
+
+        assertEquals(2, hub.connectionCount());
+        assertEquals(2.0, registry.get("todos.stream.connections").gauge().value());
+    }
+
+    @Test
+    void failedSend_shouldDropConnection() {
+        hub.subscribe(1L);
+        emitters.get(0).failing = true;
+
+        hub.sendHeartbeats();
+
+        assertEquals(0, hub.connectionCount());
+        assertNotNull(hub.subscribe(1L));
+    }
+
+    @Test
+    void sendHeartbeats_shouldReachEveryConnection() {
+        hub.subscribe(1L);
+        hub.subscribe(2L);
+
+        hub.sendHeartbeats();
+
+        assertEquals(1, emitters.get(0).sent);
+        assertEquals(1, emitters.get(1).sent);
+        assertEquals(2.0, registry.get("todos.stream.events").tag("type", "heartbeat").counter().count());
+    }
+
+    private TodoEventHub hub(ExecutorService sender) {
+        TodoEventHub eventHub = new TodoEventHub(0L, 2, 3, sender) {
+            @Override
+            SseEmitter newEmitter() {
+                RecordingEmitter emitter = new RecordingEmitter();
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+        eventHub.bindTo(registry);
+        return eventHub;
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        private int sent;
+        private boolean failing;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failing) {
+                throw new IOException("Broken pipe");
+            }
+            sent++;
+        }
+    }
+
+    /**
+     * Holds sends until {@link #runAll()}, like a client that does not read for a while.
+     */
+    private static class DeferredExecutorService extends DirectExecutorService {
+        private final List<Runnable> tasks = new ArrayList<>();
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        void runAll() {
+            tasks.forEach(Runnable::run);
+            tasks.clear();
+        }
+    }
+
+    private static class DirectExecutorService extends AbstractExecutorService {
+        private boolean shutdown;
+
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+
+        @Override
+        public void shutdown() {
+            shutdown = true;
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            shutdown = true;
+            return List.of();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return shutdown;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return shutdown;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.europace.todo.service.service;
+
+import com.europace.todo.service.dto.TodoResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TodoListCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final TodoVersions todoVersions = new TodoVersions();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void get_unchangedVersion_shouldServeFromCache() {
+        TodoListCache cache = cache(true, 10000);
+
+        cache.get(1L, this::load);
+        List<TodoResponse> result = cache.get(1L, this::load);
+
+        assertEquals(1, result.size());
+        assertEquals(1, loads.get());
+        assertEquals(0.5, cache.hitRatio());
+        assertEquals(1.0, meterRegistry.get("todos.cache.requests").tag("result", "hit").counter().count());
+        assertTrue(cache.memoryBytes() > 0);
+    }
+
+    @Test
+    void get_afterBump_shouldReload() {
+        TodoListCache cache = cache(true, 10000);
+
+        cache.get(1L, this::load);
+        todoVersions.bump(1L);
+        cache.get(1L, this::load);
+        cache.get(1L, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_loadThatRacedWithCreate_shouldNotReplaceNewerEntry() {
+        TodoListCache cache = cache(true, 10000);
+
+        cache.get(1L, userId -> {
+            todoVersions.bump(userId);
+            cache.get(userId, this::load);
+            return List.of();
+        });
+
+        assertEquals(1, cache.get(1L, this::load).size());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_listAboveMaxSize_shouldNotBeCached() {
+        TodoListCache cache = cache(true, 0);
+
+        cache.get(1L, this::load);
+        cache.get(1L, this::load);
+
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.memoryBytes());
+    }
+
+    @Test
+    void get_disabled_shouldAlwaysLoad() {
+        TodoListCache cache = cache(false, 10000);
+
+        cache.get(1L, this::load);
+        cache.get(1L, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    private TodoListCache cache(boolean enabled, int maxListSize) {
+        TodoListCache cache = new TodoListCache(enabled, 64, maxListSize, 0, todoVersions, meterRegistry);
+        cache.bindTo(meterRegistry);
+        return cache;
+    }
+
+    private List<TodoResponse> load(Long userId) {
+        loads.incrementAndGet();
+        return List.of(new TodoResponse(1L, "Learn Spring Boot", userId));
+    }
+}
@@ -1,14 +1,26 @@
 package com.europace.todo.service.service;
 
+import com.europace.todo.service.dto.TodoChange;
+import com.europace.todo.service.dto.TodoChangesResponse;
+import com.europace.todo.service.dto.TodoResponse;
 import com.europace.todo.service.entity.Todo;
 import com.europace.todo.service.repository.TodoRepository;
+import jakarta.persistence.EntityManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -22,13 +34,39 @@ class TodoServiceTest {
     @Mock
     private JwtService jwtService;
     
-    @InjectMocks
+    @Mock
+    private EntityManager entityManager;
+    
+    @Mock
+    private ChangeSequence changeSequence;
+    
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Mock
+    private TodoWriteBehind writeBehind;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    private SimpleMeterRegistry meterRegistry;
+    
+    private TodoVersions todoVersions;
+    
     private TodoService todoService;
     
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        todoVersions = new TodoVersions();
+        TodoListCache listCache = new TodoListCache(true, 64, 10000, 0, todoVersions, meterRegistry);
+        todoService = new TodoService(todoRepository, jwtService, entityManager, todoVersions, listCache, changeSequence, eventPublisher,
+                writeBehind, transactionManager, meterRegistry);
+    }
+    
     @Test
     void createTodo_validToken_shouldReturnTodo() {
-        when(jwtService.validateToken("validtoken")).thenReturn(true);
-        when(jwtService.extractUserId("validtoken")).thenReturn(1L);
+        when(jwtService.verify("validtoken")).thenReturn(new VerifiedToken(1L, null, null));
         
         Todo savedTodo = new Todo("Learn Spring Boot", 1L);
         savedTodo.setId(1L);
@@ -41,44 +79,193 @@ class TodoServiceTest {
         assertEquals(1L, result.getUserId());
         assertEquals(1L, result.getId());
         verify(todoRepository).save(any(Todo.class));
+        assertEquals(1L, todoVersions.current(1L));
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof TodoCreatedEvent created
+                && created.getUserId() == 1L && created.getTodos().get(0).getText().equals("Learn Spring Boot")));
+    }
+    
+    @Test
+    void createTodo_writeBehind_shouldWaitForGroupCommit() {
+        when(jwtService.verify("validtoken")).thenReturn(new VerifiedToken(1L, null, null));
+        Todo savedTodo = new Todo("Learn Spring Boot", 1L, 7L);
+        savedTodo.setId(1L);
+        when(writeBehind.isEnabled()).thenReturn(true);
+        when(writeBehind.submit("Learn Spring Boot", 1L)).thenReturn(CompletableFuture.completedFuture(savedTodo));
+        
+        Todo result = todoService.createTodo("Learn Spring Boot", "validtoken");
+        
+        assertSame(savedTodo, result);
+        verify(todoRepository, never()).save(any(Todo.class));
+        verifyNoInteractions(transactionManager);
+    }
+    
+    @Test
+    void createTodo_writeBehindFailure_shouldThrowCauseOfFailedInsert() {
+        when(jwtService.verify("validtoken")).thenReturn(new VerifiedToken(1L, null, null));
+        when(writeBehind.isEnabled()).thenReturn(true);
+        IllegalStateException insertFailure = new IllegalStateException("disk full");
+        when(writeBehind.submit("Learn Spring Boot", 1L)).thenReturn(CompletableFuture.failedFuture(insertFailure));
+        
+        IllegalStateException thrown = assertThrows(IllegalStateException.class,
+                () -> todoService.createTodo("Learn Spring Boot", "validtoken"));
+        
+        assertSame(insertFailure, thrown);
     }
     
     @Test
     void createTodo_invalidToken_shouldReturnNull() {
-        when(jwtService.validateToken("invalidtoken")).thenReturn(false);
+        when(jwtService.verify("invalidtoken")).thenReturn(null);
         
         Todo result = todoService.createTodo("Learn Spring Boot", "invalidtoken");
         
         assertNull(result);
         verify(todoRepository, never()).save(any(Todo.class));
+        assertEquals(0L, todoVersions.current(1L));
+        verifyNoInteractions(eventPublisher);
     }
     
     @Test
     void getUserTodos_validToken_shouldReturnTodos() {
-        when(jwtService.validateToken("validtoken")).thenReturn(true);
-        when(jwtService.extractUserId("validtoken")).thenReturn(1L);
+        when(jwtService.verify("validtoken")).thenReturn(new VerifiedToken(1L, null, null));
         
-        List<Todo> mockTodos = List.of(
-                new Todo("Learn Spring Boot", 1L),
-                new Todo("Build REST API", 1L)
+        List<TodoResponse> mockTodos = List.of(
+                new TodoResponse(1L, "Learn Spring Boot", 1L),
+                new TodoResponse(2L, "Build REST API", 1L)
         );
-        when(todoRepository.findByUserId(1L)).thenReturn(mockTodos);
+        when(todoRepository.findResponsesByUserId(1L)).thenReturn(mockTodos);
         
-        List<Todo> result = todoService.getUserTodos("validtoken");
+        List<TodoResponse> result = todoService.getUserTodos("validtoken");
         
         assertNotNull(result);
         assertEquals(2, result.size());
         assertEquals("Learn Spring Boot", result.get(0).getText());
         assertEquals("Build REST API", result.get(1).getText());
+        assertEquals(1, meterRegistry.get("todos.query").tag("query", "list").timer().count());
+        assertEquals(2, meterRegistry.get("todos.rows").tag("query", "list").summary().totalAmount());
+    }
+    
+    @Test
+    void getUserTodos_afterCreate_shouldNotServeStaleList() {
+        when(jwtService.verify("validtoken")).thenReturn(new VerifiedToken(1L, null, null));
+        TodoResponse first = new TodoResponse(1L, "Learn Spring Boot", 1L);
+        TodoResponse second = new TodoResponse(2L, "Build REST API", 1L);
+        when(todoRepository.findResponsesByUserId(1L)).thenReturn(List.of(first), List.of(first, second));
+        Todo savedTodo = new Todo("Build REST API", 1L);
+        savedTodo.setId(2L);
+        when(todoRepository.save(any(Todo.class))).thenReturn(savedTodo);
+        
+        todoService.getUserTodos("validtoken");
+        assertEquals(1, todoService.getUserTodos("validtoken").size());
+        todoService.createTodo("Build REST API", "validtoken");
+        
+        assertEquals(2, todoService.getUserTodos("validtoken").size());
+        verify(todoRepository, times(2)).findResponsesByUserId(1L);
     }
     
     @Test
     void getUserTodos_invalidToken_shouldReturnNull() {
-        when(jwtService.validateToken("invalidtoken")).thenReturn(false);
+        when(jwtService.verify("invalidtoken")).thenReturn(null);
         
-        List<Todo> result = todoService.getUserTodos("invalidtoken");
+        List<TodoResponse> result = todoService.getUserTodos("invalidtoken");
         
         assertNull(result);
-        verify(todoRepository, never()).findByUserId(any());
+        verify(todoRepository, never()).findResponsesByUserId(any());
+    }
+    
+    @Test
+    void getUserTodos_withCursor_shouldQueryNextPage() {
+        when(jwtService.verify("validtoken")).thenReturn(new VerifiedToken(1L, null, null));
+        List<TodoResponse> page = List.of(new TodoResponse(6L, "Build REST API", 1L));
+        when(todoRepository.findResponsesByUserIdAfter(1L, 5L, Limit.of(10))).thenReturn(page);
+        
+        List<TodoResponse> result = todoService.getUserTodos("validtoken", 5L, 10);
+        
+        assertSame(page, result);
+    }
+    
+    @Test
+    void getUserTodos_firstPage_shouldStartAfterZero() {
+        when(jwtService.verify("validtoken")).thenReturn(new VerifiedToken(1L, null, null));
+        
+        todoService.getUserTodos("validtoken", null, 10);
+        
+        verify(todoRepository).findResponsesByUserIdAfter(1L, 0L, Limit.of(10));
+    }
+    
+    @Test
+    void streamUserTodos_shouldFeedEachTodo() {
+        TodoResponse first = new TodoResponse(1L, "Learn Spring Boot", 1L);
+        TodoResponse second = new TodoResponse(2L, "Build REST API", 1L);
+        when(todoRepository.streamResponsesByUserId(1L)).thenReturn(Stream.of(first, second));
+        
+        List<TodoResponse> consumed = new ArrayList<>();
+        todoService.streamUserTodos(1L, consumed::add);
+        
+        assertEquals(List.of(first, second), consumed);
+    }
+    
+    @Test
+    void createTodos_validToken_shouldSaveAllForUser() {
+        when(jwtService.verify("validtoken")).thenReturn(new VerifiedToken(1L, null, null));
+        when(changeSequence.allocate(2)).thenReturn(100L);
+        when(todoRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        List<Todo> result = todoService.createTodos(List.of("Learn Spring Boot", "Build REST API"), "validtoken");
+        
+        assertEquals(2, result.size());
+        assertEquals(List.of(100L, 101L), result.stream().map(Todo::getChangeSeq).toList());
+        assertEquals("Build REST API", result.get(1).getText());
+        assertEquals(1L, result.get(1).getUserId());
+        verify(entityManager).flush();
+        verify(entityManager).clear();
+        assertEquals(1L, todoVersions.current(1L));
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof TodoCreatedEvent created
+                && created.getTodos().size() == 2));
+    }
+    
+    @Test
+    void createTodos_invalidToken_shouldReturnNull() {
+        when(jwtService.verify("invalidtoken")).thenReturn(null);
+        
+        List<Todo> result = todoService.createTodos(List.of("Learn Spring Boot"), "invalidtoken");
+        
+        assertNull(result);
+        verify(todoRepository, never()).saveAll(anyList());
+    }
+    
+    @Test
+    void getChangesSince_partialPage_shouldAdvanceToSafeWatermark() {
+        when(changeSequence.safeWatermark()).thenReturn(50L);
+        when(todoRepository.findChangesByUserId(1L, 10L, 50L, Limit.of(3)))
+                .thenReturn(List.of(new TodoChange(1L, "Learn Spring Boot", 1L, 20L)));
+        
+        TodoChangesResponse result = todoService.getChangesSince(1L, 10L, 3);
+        
+        assertEquals(1, result.getChanges().size());
+        assertEquals(50L, result.getWatermark());
+        assertFalse(result.isHasMore());
+    }
+    
+    @Test
+    void getChangesSince_fullPage_shouldAdvanceToLastChange() {
+        when(changeSequence.safeWatermark()).thenReturn(50L);
+        when(todoRepository.findChangesByUserId(1L, 10L, 50L, Limit.of(2))).thenReturn(List.of(
+                new TodoChange(1L, "Learn Spring Boot", 1L, 20L),
+                new TodoChange(2L, "Build REST API", 1L, 30L)));
+        
+        TodoChangesResponse result = todoService.getChangesSince(1L, 10L, 2);
+        
+        assertEquals(30L, result.getWatermark());
+        assertTrue(result.isHasMore());
+    }
+    
+    @Test
+    void getChangesSince_watermarkAheadOfSafeWatermark_shouldKeepWatermark() {
+        when(changeSequence.safeWatermark()).thenReturn(50L);
+        when(todoRepository.findChangesByUserId(1L, 80L, 50L, Limit.of(2))).thenReturn(List.of());
+        
+        TodoChangesResponse result = todoService.getChangesSince(1L, 80L, 2);
+        
+        assertEquals(80L, result.getWatermark());
     }
 }
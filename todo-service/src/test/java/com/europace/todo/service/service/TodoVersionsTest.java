@@ -0,0 +1,54 @@
+package com.europace.todo.service.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TodoVersionsTest {
+
+    private final TodoVersions todoVersions = new TodoVersions();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldChangeETagOnlyForBumpedUser() {
+        String before = todoVersions.etag(1L);
+        String other = todoVersions.etag(2L);
+
+        todoVersions.bump(1L);
+
+        assertNotEquals(before, todoVersions.etag(1L));
+        assertEquals(other, todoVersions.etag(2L));
+        assertTrue(todoVersions.etag(1L).matches("\"[0-9a-z]+-1-1\""));
+    }
+
+    @Test
+    void shouldDeferBumpUntilCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        todoVersions.bump(1L);
+        assertEquals(0L, todoVersions.current(1L));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(1L, todoVersions.current(1L));
+    }
+
+    @Test
+    void shouldIgnoreRolledBackBump() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        todoVersions.bump(1L);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertEquals(0L, todoVersions.current(1L));
+    }
+}
@@ -0,0 +1,155 @@
+package com.europace.todo.service.service;
+
+import com.europace.todo.service.entity.Todo;
+import com.europace.todo.service.repository.TodoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TodoWriteBehindTest {
+
+    @Mock
+    private TodoRepository todoRepository;
+
+    @Mock
+    private ChangeSequence changeSequence;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private TodoWriteBehind writeBehind;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        writeBehind.stop();
+    }
+
+    @Test
+    void submit_shouldCompleteAfterGroupCommit() throws Exception {
+        AtomicLong ids = new AtomicLong();
+        when(changeSequence.allocate(anyInt())).thenReturn(100L);
+        when(todoRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Todo> todos = invocation.getArgument(0);
+            todos.forEach(todo -> todo.setId(ids.incrementAndGet()));
+            return todos;
+        });
+        writeBehind = start(true, 1000);
+
+        CompletableFuture<Todo> first = writeBehind.submit("Learn Spring Boot", 1L);
+        CompletableFuture<Todo> second = writeBehind.submit("Walk the dog", 2L);
+
+        assertEquals("Learn Spring Boot", first.get(5, TimeUnit.SECONDS).getText());
+        assertEquals(2L, second.get(5, TimeUnit.SECONDS).getUserId());
+        assertNotNull(first.get().getChangeSeq());
+        verify(todoRepository, atMost(2)).saveAll(anyList());
+        assertEquals(2.0, meterRegistry.get("todos.write_behind.batch.size").summary().totalAmount());
+        verify(eventPublisher, times(2)).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void submit_failedCommit_shouldFailCallers() {
+        when(changeSequence.allocate(anyInt())).thenReturn(100L);
+        when(todoRepository.saveAll(anyList())).thenThrow(new IllegalStateException("disk full"));
+        writeBehind = start(true, 5);
+
+        CompletableFuture<Todo> future = writeBehind.submit("Learn Spring Boot", 1L);
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, error.getCause());
+    }
+
+    @Test
+    void submit_oneBadTodoInGroup_shouldOnlyFailItsCaller() throws Exception {
+        when(changeSequence.allocate(anyInt())).thenReturn(100L);
+        when(todoRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Todo> todos = invocation.getArgument(0);
+            if (todos.stream().anyMatch(todo -> todo.getText() == null)) {
+                throw new IllegalStateException("NULL not allowed for column TEXT");
+            }
+            return todos;
+        });
+        writeBehind = start(true, 1000);
+
+        CompletableFuture<Todo> good = writeBehind.submit("Learn Spring Boot", 1L);
+        CompletableFuture<Todo> bad = writeBehind.submit(null, 2L);
+        CompletableFuture<Todo> other = writeBehind.submit("Walk the dog", 3L);
+
+        assertEquals("Learn Spring Boot", good.get(5, TimeUnit.SECONDS).getText());
+        assertEquals("Walk the dog", other.get(5, TimeUnit.SECONDS).getText());
+        ExecutionException error = assertThrows(ExecutionException.class, () -> bad.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, error.getCause());
+    }
+
+    @Test
+    void submit_whenNotRunning_shouldBeRejected() {
+        writeBehind = start(false, 5);
+
+        assertThrows(WriteBehindQueueFullException.class, () -> writeBehind.submit("Learn Spring Boot", 1L));
+        assertEquals(1.0, meterRegistry.get("todos.write_behind.rejected").counter().count());
+    }
+
+    @Test
+    void stop_whileSubmitting_shouldCompleteEveryQueuedTodo() throws Exception {
+        when(changeSequence.allocate(anyInt())).thenReturn(100L);
+        when(todoRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        for (int round = 0; round < 100; round++) {
+            writeBehind = start(true, 1);
+            AtomicBoolean stopped = new AtomicBoolean();
+            List<CompletableFuture<Todo>> queued = Collections.synchronizedList(new ArrayList<>());
+            List<Thread> submitters = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                submitters.add(Thread.ofPlatform().start(() -> {
+                    while (!stopped.get()) {
+                        try {
+                            queued.add(writeBehind.submit("Learn Spring Boot", 1L));
+                        } catch (WriteBehindQueueFullException e) {
+                            Thread.yield();
+                        }
+                    }
+                }));
+            }
+
+            writeBehind.stop();
+            stopped.set(true);
+            for (Thread submitter : submitters) {
+                submitter.join();
+            }
+
+            for (CompletableFuture<Todo> future : queued) {
+                assertNotNull(future.get(5, TimeUnit.SECONDS), "round " + round);
+            }
+        }
+    }
+
+    private TodoWriteBehind start(boolean enabled, long maxLatencyMs) {
+        TodoWriteBehind instance = new TodoWriteBehind(enabled, 16, 500, maxLatencyMs, todoRepository, changeSequence,
+                new TodoVersions(), eventPublisher, transactionManager, meterRegistry);
+        instance.start();
+        return instance;
+    }
+}
@@ -0,0 +1,75 @@
+package com.europace.todo.service.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerifiedTokenCacheTest {
+
+    private final Instant now = Instant.parse("2025-01-01T12:00:00Z");
+
+    @Test
+    void get_cachedToken_shouldReturnItAndCountHit() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(100, Clock.fixed(now, ZoneOffset.UTC));
+        VerifiedToken verified = new VerifiedToken(1L, now, now.plus(Duration.ofHours(1)));
+
+        cache.put("token", verified);
+
+        assertSame(verified, cache.get("token"));
+        assertNull(cache.get("other"));
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.missCount());
+    }
+
+    @Test
+    void get_tokenPastExpiry_shouldNotBeServed() {
+        MutableClock clock = new MutableClock(now);
+        VerifiedTokenCache cache = new VerifiedTokenCache(100, clock);
+        cache.put("token", new VerifiedToken(1L, now.minus(Duration.ofHours(1)), now.plusSeconds(1)));
+
+        assertNotNull(cache.get("token"));
+
+        clock.instant = now.plusSeconds(1);
+
+        assertNull(cache.get("token"));
+    }
+
+    @Test
+    void put_alreadyExpiredToken_shouldBeIgnored() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(100, Clock.fixed(now, ZoneOffset.UTC));
+
+        cache.put("token", new VerifiedToken(1L, now.minus(Duration.ofHours(2)), now.minus(Duration.ofHours(1))));
+
+        assertNull(cache.get("token"));
+        assertEquals(0, cache.size());
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.europace.todo.service.service;
+
+import com.europace.todo.service.repository.TodoRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WarmUpRunnerTest {
+
+    private static final String SECRET = "mySecretKey123456789mySecretKey123456789";
+
+    @Mock
+    private TodoRepository todoRepository;
+
+    private VerifiedTokenCache tokenCache;
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        tokenCache = new VerifiedTokenCache(100);
+        jwtService = new JwtService(SECRET, tokenCache, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void shouldDoNothingWhenDisabled() {
+        runner(false, 10, 30_000, SECRET).run(null);
+
+        verifyNoInteractions(todoRepository);
+    }
+
+    @Test
+    void shouldRunTheConfiguredIterationsAndForgetTheSyntheticTokens() {
+        when(todoRepository.findResponsesByUserId(WarmUpRunner.SYNTHETIC_USER_ID)).thenReturn(List.of());
+
+        runner(true, 5, 30_000, SECRET).run(null);
+
+        verify(todoRepository, times(5)).findResponsesByUserId(WarmUpRunner.SYNTHETIC_USER_ID);
+        assertEquals(5, tokenCache.missCount());
+        assertEquals(0, tokenCache.size());
+    }
+
+    @Test
+    void shouldStopWhenTheDurationIsUsedUp() {
+        runner(true, 1_000_000, 0, SECRET).run(null);
+
+        verifyNoInteractions(todoRepository);
+    }
+
+    @Test
+    void shouldStopWithoutFailingStartupWhenTheTokenIsRejected() {
+        assertDoesNotThrow(() -> runner(true, 5, 30_000, "anotherSecretKey123456789anotherSecretKey").run(null));
+
+        verifyNoInteractions(todoRepository);
+    }
+
+    private WarmUpRunner runner(boolean enabled, int iterations, long maxDurationMs, String signingSecret) {
+        return new WarmUpRunner(enabled, iterations, maxDurationMs, signingSecret, jwtService, tokenCache,
+                todoRepository, new ObjectMapper());
+    }
+}
@@ -1,9 +1,12 @@
 package com.europace.userservice;
 
+import com.europace.userservice.config.NativeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(NativeHints.class)
 public class UserServiceApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,179 @@
+package com.europace.userservice.admission;
+
+import com.europace.userservice.service.JwtService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sheds load before it reaches a controller. A request to a configured endpoint first needs a permit from
+ * its caller's {@link TokenBucket} and is answered {@code 429} with {@code Retry-After} otherwise; then every
+ * request needs a slot from the {@link GradientConcurrencyLimiter} and is answered {@code 503} when the
+ * service is at its current limit. Requests that go async (streams) give their slot back once the handler
+ * returns, so long-lived connections do not count against the limit.
+ */
+public class AdmissionInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String STARTED_ATTRIBUTE = AdmissionInterceptor.class.getName() + ".started";
+    private static final Duration IDLE_BUCKET_EXPIRY = Duration.ofMinutes(10);
+
+    private final List<EndpointLimit> endpoints = new ArrayList<>();
+    private final GradientConcurrencyLimiter concurrencyLimiter;
+    private final JwtService jwtService;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final MeterRegistry meterRegistry;
+    private final Counter concurrencyRejected;
+
+    public AdmissionInterceptor(AdmissionProperties properties, JwtService jwtService, MeterRegistry meterRegistry) {
+        this.jwtService = jwtService;
+        this.meterRegistry = meterRegistry;
+        for (Map.Entry<String, AdmissionProperties.Endpoint> entry : properties.getEndpoints().entrySet()) {
+            endpoints.add(new EndpointLimit(entry.getKey(), entry.getValue(), properties.getMaxKeys()));
+        }
+        AdmissionProperties.Concurrency concurrency = properties.getConcurrency();
+        if (concurrency.isEnabled()) {
+            this.concurrencyLimiter = new GradientConcurrencyLimiter(concurrency.getInitialLimit(),
+                    concurrency.getMinLimit(), concurrency.getMaxLimit(), concurrency.getTolerance(),
+                    concurrency.getWindowSamples());
+            Gauge.builder("admission.concurrency.limit", concurrencyLimiter, GradientConcurrencyLimiter::limit)
+                    .description("Current adaptive limit on requests in flight")
+                    .register(meterRegistry);
+            Gauge.builder("admission.concurrency.in.flight", concurrencyLimiter, GradientConcurrencyLimiter::inFlight)
+                    .description("Requests in flight counted against the adaptive limit")
+                    .register(meterRegistry);
+        } else {
+            this.concurrencyLimiter = null;
+        }
+        this.concurrencyRejected = rejected("all", "concurrency");
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+
+        EndpointLimit endpoint = match(request);
+        if (endpoint != null) {
+            long waitNanos = endpoint.buckets.get(key(request, endpoint.key), k -> endpoint.newBucket())
+                    .tryAcquire(System.nanoTime());
+            if (waitNanos > 0) {
+                endpoint.rejected.increment();
+                reject(response, HttpStatus.TOO_MANY_REQUESTS, TimeUnit.NANOSECONDS.toSeconds(waitNanos - 1) + 1);
+                return false;
+            }
+        }
+
+        if (concurrencyLimiter != null) {
+            if (!concurrencyLimiter.tryAcquire()) {
+                concurrencyRejected.increment();
+                reject(response, HttpStatus.SERVICE_UNAVAILABLE, 1);
+                return false;
+            }
+            request.setAttribute(STARTED_ATTRIBUTE, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getAttribute(STARTED_ATTRIBUTE) != null) {
+            request.removeAttribute(STARTED_ATTRIBUTE);
+            concurrencyLimiter.ignore();
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(STARTED_ATTRIBUTE) instanceof Long started) {
+            request.removeAttribute(STARTED_ATTRIBUTE);
+            if (ex != null) {
+                concurrencyLimiter.ignore();
+            } else {
+                concurrencyLimiter.release(System.nanoTime() - started);
+            }
+        }
+    }
+
+    private EndpointLimit match(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (EndpointLimit endpoint : endpoints) {
+            if ((endpoint.method == null || endpoint.method.equalsIgnoreCase(request.getMethod()))
+                    && pathMatcher.match(endpoint.path, path)) {
+                return endpoint;
+            }
+        }
+        return null;
+    }
+
+    private String key(HttpServletRequest request, AdmissionProperties.Key key) {
+        if (key == AdmissionProperties.Key.USER) {
+            String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+            if (authHeader != null && authHeader.startsWith("Bearer ")) {
+                // Not recorded as a verification; the controller verifies the token again
+                Long userId = jwtService.identify(authHeader.substring(7));
+                if (userId != null) {
+                    return "user:" + userId;
+                }
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds) {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+    }
+
+    private Counter rejected(String endpoint, String reason) {
+        return Counter.builder("admission.rejected")
+                .description("Requests rejected before reaching a controller")
+                .tag("endpoint", endpoint)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private final class EndpointLimit {
+        private final String method;
+        private final String path;
+        private final AdmissionProperties.Key key;
+        private final double permitsPerSecond;
+        private final int burst;
+        private final Cache<String, TokenBucket> buckets;
+        private final Counter rejected;
+
+        private EndpointLimit(String name, AdmissionProperties.Endpoint endpoint, int maxKeys) {
+            this.method = endpoint.getMethod();
+            this.path = endpoint.getPath();
+            this.key = endpoint.getKey();
+            this.permitsPerSecond = endpoint.getPermitsPerSecond();
+            this.burst = endpoint.getBurst();
+            this.buckets = Caffeine.newBuilder()
+                    .maximumSize(maxKeys)
+                    .expireAfterAccess(IDLE_BUCKET_EXPIRY)
+                    .build();
+            this.rejected = rejected(name, "rate_limit");
+            // Fail on startup rather than on the first request if the rate or burst is invalid.
+            newBucket();
+        }
+
+        private TokenBucket newBucket() {
+            return new TokenBucket(permitsPerSecond, burst);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.europace.userservice.admission;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Admission control settings: a token-bucket rate limit per endpoint and caller, and one adaptive limit on
+ * the requests in flight across all endpoints.
+ */
+@ConfigurationProperties(prefix = "admission")
+public class AdmissionProperties {
+
+    public enum Key {
+        /** One bucket per authenticated user; requests without a valid token share their IP's bucket. */
+        USER,
+        /** One bucket per client IP address. */
+        IP
+    }
+
+    private boolean enabled = true;
+    private int maxKeys = 100_000;
+    private Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+    private Concurrency concurrency = new Concurrency();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxKeys() {
+        return maxKeys;
+    }
+
+    public void setMaxKeys(int maxKeys) {
+        this.maxKeys = maxKeys;
+    }
+
+    public Map<String, Endpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    public void setEndpoints(Map<String, Endpoint> endpoints) {
+        this.endpoints = endpoints;
+    }
+
+    public Concurrency getConcurrency() {
+        return concurrency;
+    }
+
+    public void setConcurrency(Concurrency concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    public static class Endpoint {
+        private String method;
+        private String path;
+        private Key key = Key.USER;
+        private double permitsPerSecond;
+        private int burst = 1;
+
+        public String getMethod() {
+            return method;
+        }
+
+        public void setMethod(String method) {
+            this.method = method;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public Key getKey() {
+            return key;
+        }
+
+        public void setKey(Key key) {
+            this.key = key;
+        }
+
+        public double getPermitsPerSecond() {
+            return permitsPerSecond;
+        }
+
+        public void setPermitsPerSecond(double permitsPerSecond) {
+            this.permitsPerSecond = permitsPerSecond;
+        }
+
+        public int getBurst() {
+            return burst;
+        }
+
+        public void setBurst(int burst) {
+            this.burst = burst;
+        }
+    }
+
+    public static class Concurrency {
+        private boolean enabled = true;
+        private int initialLimit = 200;
+        private int minLimit = 20;
+        private int maxLimit = 2000;
+        private double tolerance = 2.0;
+        private int windowSamples = 100;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getInitialLimit() {
+            return initialLimit;
+        }
+
+        public void setInitialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+        }
+
+        public int getMinLimit() {
+            return minLimit;
+        }
+
+        public void setMinLimit(int minLimit) {
+            this.minLimit = minLimit;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+
+        public double getTolerance() {
+            return tolerance;
+        }
+
+        public void setTolerance(double tolerance) {
+            this.tolerance = tolerance;
+        }
+
+        public int getWindowSamples() {
+            return windowSamples;
+        }
+
+        public void setWindowSamples(int windowSamples) {
+            this.windowSamples = windowSamples;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.europace.userservice.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limits the number of requests in flight to a limit that adapts to the observed latency.
+ * <p>
+ * Latencies are averaged over windows of {@code windowSamples} requests. Each window is compared with a
+ * long-term average: while the short-term latency stays within {@code tolerance} times the long-term one the
+ * limit grows by about its square root, and as soon as latency rises (requests start to queue) the limit
+ * shrinks by the ratio of the two. Acquiring and releasing is lock-free; the limit is recomputed by whichever
+ * thread completes a window, and skipped if another thread is already doing it.
+ */
+public class GradientConcurrencyLimiter {
+
+    private static final double SMOOTHING = 0.2;
+    private static final double LONG_TERM_WINDOWS = 50;
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final int windowSamples;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final AtomicInteger samples = new AtomicInteger();
+    private final LongAdder sampleNanos = new LongAdder();
+    private final ReentrantLock updateLock = new ReentrantLock();
+    private volatile double limit;
+    private double longTermNanos;
+
+    public GradientConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance, int windowSamples) {
+        if (minLimit < 1 || maxLimit < minLimit || tolerance < 1 || windowSamples < 1) {
+            throw new IllegalArgumentException("Invalid concurrency limit settings");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.windowSamples = windowSamples;
+        this.limit = Math.clamp(initialLimit, minLimit, maxLimit);
+    }
+
+    /**
+     * Admits a request if fewer than {@link #limit()} requests are in flight. Every admitted request must be
+     * followed by exactly one call to {@link #release(long)} or {@link #ignore()}.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                peakInFlight.accumulateAndGet(current + 1, Math::max);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Ends a request that took {@code latencyNanos} and feeds its latency into the limit.
+     */
+    public void release(long latencyNanos) {
+        inFlight.decrementAndGet();
+        sampleNanos.add(latencyNanos);
+        if (samples.incrementAndGet() >= windowSamples && updateLock.tryLock()) {
+            try {
+                int count = samples.getAndSet(0);
+                long total = sampleNanos.sumThenReset();
+                int peak = peakInFlight.getAndSet(inFlight.get());
+                if (count > 0) {
+                    update((double) total / count, peak);
+                }
+            } finally {
+                updateLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Ends a request whose latency says nothing about the service's capacity, such as a long-lived stream.
+     */
+    public void ignore() {
+        inFlight.decrementAndGet();
+    }
+
+    public int limit() {
+        return (int) limit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    private void update(double shortTermNanos, int peakInFlight) {
+        if (longTermNanos == 0) {
+            longTermNanos = shortTermNanos;
+        } else {
+            longTermNanos += (shortTermNanos - longTermNanos) / LONG_TERM_WINDOWS;
+        }
+        // Let the baseline follow latency back down quickly after a slow period.
+        if (longTermNanos > 2 * shortTermNanos) {
+            longTermNanos = 2 * shortTermNanos;
+        }
+
+        double current = limit;
+        if (peakInFlight < current / 2 && shortTermNanos <= tolerance * longTermNanos) {
+            // The limit is not what bounds throughput right now, so latency says nothing about raising it.
+            return;
+        }
+        double gradient = Math.clamp(tolerance * longTermNanos / shortTermNanos, MIN_GRADIENT, 1.0);
+        double target = current * gradient + Math.sqrt(current);
+        limit = Math.clamp(current * (1 - SMOOTHING) + target * SMOOTHING, minLimit, maxLimit);
+    }
+}
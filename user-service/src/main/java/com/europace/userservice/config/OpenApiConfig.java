@@ -0,0 +1,22 @@
+package com.europace.userservice.config;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.info.Info;
+import io.swagger.v3.oas.models.servers.Server;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class OpenApiConfig {
+
+    @Bean
+    public OpenAPI customOpenAPI() {
+        return new OpenAPI()
+                .info(new Info()
+                        .title("User Service API")
+                        .description("API for user registration, login and JWT token verification")
+                        .version("1.0"))
+                // Relative, so the document generated at build time fits wherever the service runs
+                .addServersItem(new Server().url("/"));
+    }
+}
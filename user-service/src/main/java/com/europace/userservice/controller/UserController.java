@@ -2,11 +2,17 @@ package com.europace.userservice.controller;
 
 import com.europace.userservice.dto.*;
 import com.europace.userservice.entity.User;
+import com.europace.userservice.service.AuthResult;
 import com.europace.userservice.service.JwtService;
+import com.europace.userservice.service.PasswordHasherBusyException;
 import com.europace.userservice.service.UserService;
+import com.europace.userservice.service.VerifiedUser;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
@@ -14,16 +20,21 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
+import java.util.List;
+
 @RestController
 @Tag(name = "User API", description = "Endpoints for user registration, login, and token verification")
 public class UserController {
 
     private final UserService userService;
     private final JwtService jwtService;
+    private final int maxBatchSize;
 
-    public UserController(UserService userService, JwtService jwtService) {
+    public UserController(UserService userService, JwtService jwtService,
+                          @Value("${token.batch.max-size:100}") int maxBatchSize) {
         this.userService = userService;
         this.jwtService = jwtService;
+        this.maxBatchSize = maxBatchSize;
     }
 
     @PostMapping("/register")
@@ -32,7 +43,8 @@ public class UserController {
         description = "Creates a new user and returns a JWT token",
         responses = {
             @ApiResponse(responseCode = "201", description = "User registered successfully"),
-            @ApiResponse(responseCode = "409", description = "Username already exists")
+            @ApiResponse(responseCode = "409", description = "Username already exists"),
+            @ApiResponse(responseCode = "503", description = "Password hashing capacity exhausted, retry later")
         }
     )
     public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterRequest request) {
@@ -54,18 +66,18 @@ public class UserController {
         description = "Authenticates a user and returns a JWT token",
         responses = {
             @ApiResponse(responseCode = "200", description = "Login successful"),
-            @ApiResponse(responseCode = "401", description = "Invalid credentials")
+            @ApiResponse(responseCode = "401", description = "Invalid credentials"),
+            @ApiResponse(responseCode = "503", description = "Password hashing capacity exhausted, retry later")
         }
     )
     public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request) {
-        String token = userService.authenticateUser(request.getUsername(), request.getPassword());
+        AuthResult result = userService.authenticateUser(request.getUsername(), request.getPassword());
 
-        if (token == null) {
+        if (result == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
-        User user = userService.findByUsername(request.getUsername());
-        AuthResponse response = new AuthResponse(token, user.getUsername(), user.getId());
+        AuthResponse response = new AuthResponse(result.getToken(), result.getUsername(), result.getUserId());
 
         return ResponseEntity.ok(response);
     }
@@ -80,14 +92,51 @@ public class UserController {
         }
     )
     public ResponseEntity<TokenValidationResponse> verifyToken(@RequestBody TokenRequest request) {
-        User user = userService.verifyToken(request.getToken());
+        VerifiedUser user = userService.verifyToken(request.getToken());
         
         if (user == null) {
-            TokenValidationResponse response = new TokenValidationResponse(false, null, null, "Invalid token");
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(validationResponse(null));
         }
         
-        TokenValidationResponse response = new TokenValidationResponse(true, user.getId(), user.getUsername(), "Token valid");
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(validationResponse(user));
+    }
+
+    @PostMapping("/token/batch")
+    @Operation(
+        summary = "Verify many JWT tokens at once",
+        description = "Validates all given JWT tokens and returns one result per token in request order; "
+                + "an invalid or expired token gets a result with valid=false",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Tokens verified"),
+            @ApiResponse(responseCode = "400", description = "Empty batch"),
+            @ApiResponse(responseCode = "413", description = "Batch exceeds the maximum size")
+        }
+    )
+    public ResponseEntity<TokenBatchResponse> verifyTokens(@RequestBody List<String> tokens) {
+        if (tokens.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (tokens.size() > maxBatchSize) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+
+        List<TokenValidationResponse> results = userService.verifyTokens(tokens).stream()
+                .map(UserController::validationResponse)
+                .toList();
+        return ResponseEntity.ok(new TokenBatchResponse(results));
+    }
+
+    private static TokenValidationResponse validationResponse(VerifiedUser user) {
+        if (user == null) {
+            return new TokenValidationResponse(false, null, null, "Invalid token");
+        }
+        return new TokenValidationResponse(true, user.getUserId(), user.getUsername(), "Token valid");
+    }
+
+    @ExceptionHandler(PasswordHasherBusyException.class)
+    public ResponseEntity<Void> passwordHasherBusy() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .build();
     }
 }
@@ -1,9 +1,11 @@
 package com.europace.userservice.dto;
 
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 
 public class RegisterRequest {
     @NotBlank(message = "Username is required")
+    @Size(max = 255, message = "Username must be at most 255 characters")
     private String username;
 
     @NotBlank(message = "Password is required")
@@ -0,0 +1,16 @@
+package com.europace.userservice.dto;
+
+import java.util.List;
+
+public class TokenBatchResponse {
+    private List<TokenValidationResponse> results;
+
+    public TokenBatchResponse() {}
+
+    public TokenBatchResponse(List<TokenValidationResponse> results) {
+        this.results = results;
+    }
+
+    public List<TokenValidationResponse> getResults() { return results; }
+    public void setResults(List<TokenValidationResponse> results) { this.results = results; }
+}
@@ -0,0 +1,29 @@
+package com.europace.userservice.service;
+
+/**
+ * Outcome of a successful login: the issued token and the user it was issued for.
+ */
+public class AuthResult {
+
+    private final String token;
+    private final Long userId;
+    private final String username;
+
+    public AuthResult(String token, Long userId, String username) {
+        this.token = token;
+        this.userId = userId;
+        this.username = username;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+}
@@ -1,61 +1,108 @@
 package com.europace.userservice.service;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class JwtService {
 
-    @Value("${jwt.secret}")
-    private String secretKey;
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final long expirationTime;
+    private final Timer generationTimer;
+    private final Timer validTimer;
+    private final Timer invalidTimer;
 
-    @Value("${jwt.expiration}")
-    private long expirationTime;
+    public JwtService(@Value("${jwt.secret}") String secretKey,
+                      @Value("${jwt.expiration}") long expirationTime,
+                      MeterRegistry meterRegistry) {
+        this.signingKey = Keys.hmacShaKeyFor(secretKey.getBytes());
+        this.parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        this.expirationTime = expirationTime;
+        this.generationTimer = Timer.builder("jwt.generation")
+                .description("Time to sign a new token")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.validTimer = verificationTimer(meterRegistry, "valid");
+        this.invalidTimer = verificationTimer(meterRegistry, "invalid");
+    }
 
     public String generateToken(Long userId) {
-        return Jwts.builder()
+        return generationTimer.record(() -> Jwts.builder()
                 .subject(userId.toString())
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + expirationTime))
-                .signWith(getSigningKey())
-                .compact();
+                .signWith(signingKey)
+                .compact());
     }
 
-    public Long extractUserId(String token) {
-        try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-            return Long.parseLong(claims.getSubject());
-        } catch (Exception e) {
+    /**
+     * Verifies the signature and expiry of the token and reads its claims in one parse.
+     *
+     * @return the verified claims, or {@code null} if the token is missing, invalid or expired
+     */
+    public VerifiedToken verify(String token) {
+        if (token == null) {
             return null;
         }
+        long start = System.nanoTime();
+        VerifiedToken verified = parse(token);
+        (verified != null ? validTimer : invalidTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return verified;
     }
 
-    public boolean validateToken(String token) {
+    /**
+     * Identifies the user of a token for the admission check, which runs before the request's own
+     * {@link #verify}. Records no {@code jwt.verification} sample, so each request is counted once.
+     *
+     * @return the user id, or {@code null} if the token is missing, invalid or expired
+     */
+    public Long identify(String token) {
         if (token == null) {
-            return false;
+            return null;
         }
+        VerifiedToken verified = parse(token);
+        return verified != null ? verified.getUserId() : null;
+    }
+
+    public Long extractUserId(String token) {
+        VerifiedToken verified = verify(token);
+        return verified != null ? verified.getUserId() : null;
+    }
+
+    public boolean validateToken(String token) {
+        return verify(token) != null;
+    }
+
+    private static Timer verificationTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("jwt.verification")
+                .description("Time to verify a token")
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private VerifiedToken parse(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            return new VerifiedToken(
+                    Long.parseLong(claims.getSubject()),
+                    claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                    claims.getExpiration() != null ? claims.getExpiration().toInstant() : null);
         } catch (Exception e) {
-            return false;
+            return null;
         }
     }
-
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secretKey.getBytes());
-    }
 }
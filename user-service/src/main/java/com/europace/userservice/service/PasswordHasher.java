@@ -0,0 +1,163 @@
+package com.europace.userservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hashes and verifies passwords with BCrypt on a dedicated, bounded pool of platform threads, so slow
+ * hashing cannot occupy the request threads. When all workers are busy and the queue is full, calls fail
+ * fast with {@link PasswordHasherBusyException} instead of piling up.
+ * <p>
+ * The cost is taken from {@code password.hash.cost}; when it is {@code 0} it is tuned at startup to the
+ * highest cost whose hash time stays within {@code password.hash.target-latency-ms}.
+ */
+@Service
+public class PasswordHasher {
+
+    static final int MIN_COST = 4;
+    static final int MIN_TUNED_COST = 10;
+    static final int MAX_COST = 16;
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHasher.class);
+
+    private final int cost;
+    private final ThreadPoolExecutor executor;
+    private final Timer hashTimer;
+    private final Timer verifyTimer;
+    private final Counter rejected;
+
+    public PasswordHasher(@Value("${password.hash.cost:0}") int cost,
+                          @Value("${password.hash.target-latency-ms:100}") long targetLatencyMs,
+                          @Value("${password.hash.threads:0}") int threads,
+                          @Value("${password.hash.queue-capacity:64}") int queueCapacity,
+                          MeterRegistry meterRegistry) {
+        this.cost = cost > 0 ? cost : tuneCost(targetLatencyMs);
+        int workers = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hasher-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.hashTimer = hashingTimer(meterRegistry, "hash");
+        this.verifyTimer = hashingTimer(meterRegistry, "verify");
+        this.rejected = Counter.builder("password.hash.rejected")
+                .description("Hashing requests rejected because the pool and its queue were full")
+                .register(meterRegistry);
+        Gauge.builder("password.hash.queue", executor, e -> e.getQueue().size())
+                .description("Hashing requests waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("password.hash.cost", this, PasswordHasher::getCost)
+                .description("BCrypt cost used for new hashes")
+                .register(meterRegistry);
+        log.info("Hashing passwords with BCrypt cost {} on {} threads", this.cost, workers);
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    public String hash(String rawPassword) {
+        return submit(() -> hashTimer.record(() -> BCrypt.hashpw(rawPassword, BCrypt.gensalt(cost))));
+    }
+
+    /**
+     * Checks the password against a BCrypt hash, or against a stored plain text password written before hashing was introduced.
+     */
+    public boolean matches(String rawPassword, String storedPassword) {
+        if (!isHashed(storedPassword)) {
+            return MessageDigest.isEqual(rawPassword.getBytes(StandardCharsets.UTF_8),
+                    storedPassword.getBytes(StandardCharsets.UTF_8));
+        }
+        return submit(() -> verifyTimer.record(() -> BCrypt.checkpw(rawPassword, storedPassword)));
+    }
+
+    /**
+     * Whether the stored password is plain text or was hashed with a lower cost than the current one.
+     * Stronger hashes are kept, so replicas or restarts that tune to a lower cost do not rehash back and forth.
+     */
+    public boolean needsRehash(String storedPassword) {
+        return !isHashed(storedPassword) || costOf(storedPassword) < cost;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> T submit(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHasherBusyException();
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private static boolean isHashed(String storedPassword) {
+        return storedPassword.length() == 60 && storedPassword.startsWith("$2");
+    }
+
+    private static int costOf(String hash) {
+        return Integer.parseInt(hash.substring(4, 6));
+    }
+
+    /**
+     * Raises the cost one step at a time, each step doubling the work, until a hash takes longer than the
+     * target latency, and keeps the last cost that stayed within it.
+     */
+    static int tuneCost(long targetLatencyMs) {
+        long targetNanos = TimeUnit.MILLISECONDS.toNanos(targetLatencyMs);
+        BCrypt.hashpw("warm-up", BCrypt.gensalt(MIN_COST));
+        int tuned = MIN_TUNED_COST;
+        for (int candidate = MIN_TUNED_COST; candidate <= MAX_COST; candidate++) {
+            long start = System.nanoTime();
+            BCrypt.hashpw("calibration", BCrypt.gensalt(candidate));
+            if (System.nanoTime() - start > targetNanos) {
+                break;
+            }
+            tuned = candidate;
+        }
+        return tuned;
+    }
+
+    private static Timer hashingTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("password.hash")
+                .description("Time to hash or verify a password on the hashing pool")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,11 @@
+package com.europace.userservice.service;
+
+/**
+ * Thrown when the password hashing pool and its queue are full and the request is rejected instead of waiting.
+ */
+public class PasswordHasherBusyException extends RuntimeException {
+
+    public PasswordHasherBusyException() {
+        super("Password hashing capacity exhausted");
+    }
+}
@@ -2,45 +2,161 @@ package com.europace.userservice.service;
 
 import com.europace.userservice.entity.User;
 import com.europace.userservice.repository.UserRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
 @Service
 public class UserService {
     
+    private static final String USERNAME_CONSTRAINT = "uk_users_username";
+    
     private final UserRepository userRepository;
     private final JwtService jwtService;
+    private final PasswordHasher passwordHasher;
+    private final UsernameFilter usernameFilter;
+    private final UsernameCache usernameCache;
+    private final Timer loginSuccessTimer;
+    private final Timer loginFailureTimer;
+    private final Timer registrationTimer;
+    private final DistributionSummary tokenBatchSize;
     
-    public UserService(UserRepository userRepository, JwtService jwtService) {
+    public UserService(UserRepository userRepository, JwtService jwtService, PasswordHasher passwordHasher,
+                       UsernameFilter usernameFilter, UsernameCache usernameCache, MeterRegistry meterRegistry) {
         this.userRepository = userRepository;
         this.jwtService = jwtService;
+        this.passwordHasher = passwordHasher;
+        this.usernameFilter = usernameFilter;
+        this.usernameCache = usernameCache;
+        this.loginSuccessTimer = loginTimer(meterRegistry, "success");
+        this.loginFailureTimer = loginTimer(meterRegistry, "failure");
+        this.registrationTimer = Timer.builder("user.registration")
+                .description("Time to register a new user")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.tokenBatchSize = DistributionSummary.builder("token.batch.size")
+                .description("Tokens verified per batch request")
+                .register(meterRegistry);
     }
     
+    /**
+     * Registers a new user with a single insert of the hashed password; a taken username is detected by the unique
+     * constraint on {@code users.username}, which also settles concurrent registrations of the same name.
+     *
+     * Any other integrity violation is rethrown.
+     *
+     * @return the saved user, or {@code null} if the username already exists
+     */
     public User registerUser(String username, String password) {
-        if (userRepository.existsByUsername(username)) {
-            return null;
-        }
-        
-        User user = new User(username, password);
-        return userRepository.save(user);
+        return registrationTimer.record(() -> {
+            try {
+                User user = userRepository.saveAndFlush(new User(username, passwordHasher.hash(password)));
+                usernameFilter.add(user.getUsername());
+                usernameCache.put(user.getId(), user.getUsername());
+                return user;
+            } catch (DataIntegrityViolationException e) {
+                if (isDuplicateUsername(e)) {
+                    return null;
+                }
+                throw e;
+            }
+        });
     }
     
-    public String authenticateUser(String username, String password) {
-        return userRepository.findByUsername(username)
-                .filter(user -> user.getPassword().equals(password))
-                .map(user -> jwtService.generateToken(user.getId()))
+    /**
+     * Checks the credentials with a single lookup by username and issues a token for the user.
+     * Usernames the {@link UsernameFilter} knows to be unregistered are rejected without a query.
+     * A password stored in plain text or with an outdated hash cost is rehashed with the current cost.
+     *
+     * @return the token together with the user's id and name, or {@code null} if the credentials are wrong
+     * @throws PasswordHasherBusyException if the password hashing pool is saturated
+     */
+    public AuthResult authenticateUser(String username, String password) {
+        long start = System.nanoTime();
+        if (!usernameFilter.mightContain(username)) {
+            loginFailureTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return null;
+        }
+        AuthResult result = userRepository.findByUsername(username)
+                .filter(user -> passwordHasher.matches(password, user.getPassword()))
+                .map(user -> {
+                    rehashIfNeeded(user, password);
+                    return new AuthResult(jwtService.generateToken(user.getId()), user.getId(), user.getUsername());
+                })
                 .orElse(null);
+        (result != null ? loginSuccessTimer : loginFailureTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return result;
     }
     
-    public User verifyToken(String token) {
-        if (!jwtService.validateToken(token)) {
+    /**
+     * @return the user the token was issued for, or {@code null} if the token is invalid or its user does not exist
+     */
+    public VerifiedUser verifyToken(String token) {
+        VerifiedToken verified = jwtService.verify(token);
+        if (verified == null) {
             return null;
         }
         
-        Long userId = jwtService.extractUserId(token);
-        return userRepository.findById(userId).orElse(null);
+        String username = usernameCache.get(verified.getUserId());
+        return username != null ? new VerifiedUser(verified.getUserId(), username) : null;
+    }
+    
+    /**
+     * Verifies all tokens and looks up their users with a single {@link UsernameCache#getAll} call.
+     *
+     * @return the verification result of each token in request order, {@code null} for an invalid token
+     */
+    public List<VerifiedUser> verifyTokens(List<String> tokens) {
+        tokenBatchSize.record(tokens.size());
+        List<VerifiedToken> verified = tokens.stream().map(jwtService::verify).toList();
+        List<Long> userIds = verified.stream().filter(Objects::nonNull).map(VerifiedToken::getUserId).toList();
+        Map<Long, String> usernames = userIds.isEmpty() ? Map.of() : usernameCache.getAll(userIds);
+        
+        List<VerifiedUser> results = new ArrayList<>(verified.size());
+        for (VerifiedToken token : verified) {
+            String username = token != null ? usernames.get(token.getUserId()) : null;
+            results.add(username != null ? new VerifiedUser(token.getUserId(), username) : null);
+        }
+        return results;
+    }
+    
+    private void rehashIfNeeded(User user, String password) {
+        if (!passwordHasher.needsRehash(user.getPassword())) {
+            return;
+        }
+        try {
+            user.setPassword(passwordHasher.hash(password));
+            userRepository.save(user);
+        } catch (PasswordHasherBusyException e) {
+            // the login itself succeeded; the rehash is retried on the next login
+        }
+    }
+    
+    /**
+     * Whether the insert violated {@code uk_users_username}. H2 reports the index backing the constraint,
+     * e.g. {@code PUBLIC.UK_USERS_USERNAME_INDEX_4}, so the name is matched as a substring.
+     */
+    private static boolean isDuplicateUsername(DataIntegrityViolationException e) {
+        return e.getCause() instanceof ConstraintViolationException violation
+                && violation.getConstraintName() != null
+                && violation.getConstraintName().toLowerCase(Locale.ROOT).contains(USERNAME_CONSTRAINT);
     }
     
-    public User findByUsername(String username) {
-        return userRepository.findByUsername(username).orElse(null);
+    private static Timer loginTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("user.login")
+                .description("Time to authenticate a user and issue a token")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 }
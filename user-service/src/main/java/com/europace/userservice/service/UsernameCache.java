@@ -0,0 +1,86 @@
+package com.europace.userservice.service;
+
+import com.europace.userservice.entity.User;
+import com.europace.userservice.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bounded cache of usernames by user id, consulted by token verification before the {@code users} table.
+ * Users are never deleted or renamed, so entries do not expire; ids without a user are not cached and are
+ * looked up again on the next request. Hit, miss and eviction counts are published as {@code cache.*}
+ * metrics with {@code cache=users.usernames}.
+ */
+@Component
+public class UsernameCache implements MeterBinder {
+
+    private final UserRepository userRepository;
+    private final Cache<Long, String> cache;
+    private DistributionSummary bulkHits;
+
+    public UsernameCache(UserRepository userRepository, @Value("${user-cache.max-size:100000}") long maxSize) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * @return the username, or {@code null} if no user has this id
+     */
+    public String get(long userId) {
+        return cache.get(userId, id -> userRepository.findById(id).map(User::getUsername).orElse(null));
+    }
+
+    /**
+     * Looks up all ids at once, with a single query for the ones not cached yet.
+     *
+     * @return the usernames by id; ids without a user are missing from the map
+     */
+    public Map<Long, String> getAll(Collection<Long> userIds) {
+        Set<Long> distinct = Set.copyOf(userIds);
+        int[] loaded = {0};
+        Map<Long, String> usernames = cache.getAll(distinct, missing -> {
+            loaded[0] = missing.size();
+            return userRepository.findAllById(List.copyOf(missing)).stream()
+                    .collect(Collectors.toMap(User::getId, User::getUsername));
+        });
+        if (bulkHits != null) {
+            bulkHits.record(distinct.size() - loaded[0]);
+        }
+        return usernames;
+    }
+
+    public void put(long userId, String username) {
+        cache.put(userId, username);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "users.usernames");
+        bulkHits = DistributionSummary.builder("users.usernames.bulk.hits")
+                .description("Users per bulk lookup answered from the username cache")
+                .register(registry);
+    }
+
+    public long hitCount() {
+        return cache.stats().hitCount();
+    }
+
+    public long missCount() {
+        return cache.stats().missCount();
+    }
+}
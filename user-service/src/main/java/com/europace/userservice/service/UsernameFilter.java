@@ -0,0 +1,94 @@
+package com.europace.userservice.service;
+
+import com.europace.userservice.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.stream.Stream;
+
+/**
+ * In-memory {@link BloomFilter} of all registered usernames, used to answer logins for unknown usernames
+ * without a database query. It is filled from the {@code users} table once the application is ready and
+ * updated on every registration; until it is filled, every username is reported as possibly present.
+ * <p>
+ * The filter only sees registrations made through this instance, so it assumes this service is the only
+ * writer of the {@code users} table.
+ */
+@Component
+public class UsernameFilter implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(UsernameFilter.class);
+
+    private final UserRepository userRepository;
+    private final boolean enabled;
+    private final BloomFilter filter;
+    private volatile boolean loaded;
+    private Counter misses;
+
+    public UsernameFilter(UserRepository userRepository,
+                          @Value("${username-filter.enabled:true}") boolean enabled,
+                          @Value("${username-filter.expected-users:1000000}") long expectedUsers,
+                          @Value("${username-filter.false-positive-probability:0.01}") double falsePositiveProbability) {
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+        this.filter = new BloomFilter(expectedUsers, falsePositiveProbability);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        long[] count = {0};
+        try (Stream<String> usernames = userRepository.streamAllUsernames()) {
+            usernames.forEach(username -> {
+                filter.add(username);
+                count[0]++;
+            });
+        }
+        loaded = true;
+        log.info("Loaded {} usernames into the username filter in {} ms", count[0], (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public void add(String username) {
+        filter.add(username);
+    }
+
+    /**
+     * @return {@code false} only if the username is definitely not registered
+     */
+    public boolean mightContain(String username) {
+        if (!enabled || !loaded || filter.mightContain(username)) {
+            return true;
+        }
+        if (misses != null) {
+            misses.increment();
+        }
+        return false;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        misses = Counter.builder("username.filter.misses")
+                .description("Logins for unknown usernames answered without a database query")
+                .register(registry);
+        Gauge.builder("username.filter.false.positive.probability", filter, BloomFilter::expectedFalsePositiveProbability)
+                .description("Estimated probability that an unknown username still needs a database query")
+                .register(registry);
+        Gauge.builder("username.filter.memory", filter, BloomFilter::memoryBytes)
+                .description("Memory used by the username filter's bit array")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+}
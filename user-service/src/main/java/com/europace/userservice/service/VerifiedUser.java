@@ -0,0 +1,23 @@
+package com.europace.userservice.service;
+
+/**
+ * Outcome of a successful token verification: the user the token was issued for.
+ */
+public class VerifiedUser {
+
+    private final Long userId;
+    private final String username;
+
+    public VerifiedUser(Long userId, String username) {
+        this.userId = userId;
+        this.username = username;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+}
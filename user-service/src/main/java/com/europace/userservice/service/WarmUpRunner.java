@@ -0,0 +1,87 @@
+package com.europace.userservice.service;
+
+import com.europace.userservice.dto.AuthResponse;
+import com.europace.userservice.dto.LoginRequest;
+import com.europace.userservice.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optional JIT warm-up before the service reports ready. Spring Boot only switches the readiness state to
+ * {@code ACCEPTING_TRAFFIC} once every {@link ApplicationRunner} has returned, so while this runs
+ * {@code /actuator/health/readiness} answers 503 and a load balancer keeps traffic away.
+ * <p>
+ * Each iteration runs the hot paths of {@code POST /login} and {@code POST /token} with synthetic data:
+ * reading a {@link LoginRequest}, the lookup by username, signing and verifying a token and writing an
+ * {@link AuthResponse}. Password hashing is left out, its cost is the work factor rather than the JIT.
+ * It stops after {@code warmup.iterations} iterations or {@code warmup.max-duration-ms}, whichever comes
+ * first. Nothing is written to the database.
+ */
+@Component
+public class WarmUpRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmUpRunner.class);
+
+    static final long SYNTHETIC_USER_ID = -1;
+
+    private final boolean enabled;
+    private final int iterations;
+    private final long maxDurationNanos;
+    private final JwtService jwtService;
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+
+    public WarmUpRunner(@Value("${warmup.enabled:false}") boolean enabled,
+                        @Value("${warmup.iterations:20000}") int iterations,
+                        @Value("${warmup.max-duration-ms:30000}") long maxDurationMs,
+                        JwtService jwtService,
+                        UserRepository userRepository,
+                        ObjectMapper objectMapper) {
+        this.enabled = enabled;
+        this.iterations = iterations;
+        this.maxDurationNanos = TimeUnit.MILLISECONDS.toNanos(maxDurationMs);
+        this.jwtService = jwtService;
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        int completed = 0;
+        try {
+            while (completed < iterations && System.nanoTime() - start < maxDurationNanos) {
+                iteration(completed);
+                completed++;
+            }
+        } catch (RuntimeException | IOException e) {
+            // A failed warm-up only costs latency; it must not keep the service from starting
+            log.warn("Warm-up stopped after {} iterations", completed, e);
+        }
+        log.info("Warm-up ran {} iterations in {} ms", completed, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private void iteration(int i) throws IOException {
+        byte[] body = ("{\"username\":\"warm-up-" + i + "\",\"password\":\"warm-up\"}").getBytes(StandardCharsets.UTF_8);
+        LoginRequest request = objectMapper.readValue(body, LoginRequest.class);
+        userRepository.findByUsername(request.getUsername());
+
+        String token = jwtService.generateToken(SYNTHETIC_USER_ID);
+        if (jwtService.verify(token) == null) {
+            throw new IllegalStateException("The synthetic token was rejected");
+        }
+        objectMapper.writeValueAsBytes(new AuthResponse(token, request.getUsername(), SYNTHETIC_USER_ID));
+    }
+}
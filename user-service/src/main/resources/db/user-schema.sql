@@ -0,0 +1,8 @@
+-- Schema for the persistent profile. Must stay in sync with the User entity; every statement is idempotent.
+create table if not exists users (
+    id bigint generated by default as identity,
+    username varchar(255) not null,
+    password varchar(255) not null,
+    primary key (id),
+    constraint uk_users_username unique (username)
+);
@@ -0,0 +1,70 @@
+package com.europace.userservice.admission;
+
+import com.europace.userservice.service.JwtService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AdmissionInterceptorTest {
+
+    @Mock
+    private JwtService jwtService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void preHandle_loginsOverRateFromOneIp_shouldReturn429() {
+        AdmissionInterceptor interceptor = interceptor();
+
+        assertEquals(200, login(interceptor, "10.0.0.1").getStatus());
+        assertEquals(200, login(interceptor, "10.0.0.1").getStatus());
+        MockHttpServletResponse rejected = login(interceptor, "10.0.0.1");
+
+        assertEquals(429, rejected.getStatus());
+        assertNotNull(rejected.getHeader("Retry-After"));
+        assertEquals(200, login(interceptor, "10.0.0.2").getStatus());
+        assertEquals(1.0, meterRegistry.get("admission.rejected").tag("endpoint", "login")
+                .tag("reason", "rate_limit").counter().count());
+        verifyNoInteractions(jwtService);
+    }
+
+    @Test
+    void afterCompletion_shouldReleaseConcurrencySlot() {
+        AdmissionInterceptor interceptor = interceptor();
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/token");
+
+        assertTrue(interceptor.preHandle(request, new MockHttpServletResponse(), null));
+        assertEquals(1.0, meterRegistry.get("admission.concurrency.in.flight").gauge().value());
+        interceptor.afterCompletion(request, new MockHttpServletResponse(), null, null);
+
+        assertEquals(0.0, meterRegistry.get("admission.concurrency.in.flight").gauge().value());
+    }
+
+    private AdmissionInterceptor interceptor() {
+        AdmissionProperties properties = new AdmissionProperties();
+        AdmissionProperties.Endpoint login = new AdmissionProperties.Endpoint();
+        login.setMethod("POST");
+        login.setPath("/login");
+        login.setKey(AdmissionProperties.Key.IP);
+        login.setPermitsPerSecond(0.1);
+        login.setBurst(2);
+        properties.getEndpoints().put("login", login);
+        return new AdmissionInterceptor(properties, jwtService, meterRegistry);
+    }
+
+    private static MockHttpServletResponse login(AdmissionInterceptor interceptor, String ip) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/login");
+        request.setRemoteAddr(ip);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        interceptor.preHandle(request, response, null);
+        return response;
+    }
+}
@@ -0,0 +1,73 @@
+package com.europace.userservice.admission;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GradientConcurrencyLimiterTest {
+
+    private static final long MILLI = 1_000_000L;
+
+    @Test
+    void tryAcquire_atLimit_shouldReject() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(2, 1, 10, 2.0, 100);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+
+        limiter.ignore();
+        assertTrue(limiter.tryAcquire());
+        assertEquals(2, limiter.inFlight());
+    }
+
+    @Test
+    void release_steadyLatencyAtLimit_shouldGrowLimit() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(10, 1, 100, 2.0, 10);
+
+        for (int window = 0; window < 20; window++) {
+            saturate(limiter, 10 * MILLI);
+        }
+
+        assertTrue(limiter.limit() > 10, "limit " + limiter.limit());
+    }
+
+    @Test
+    void release_risingLatency_shouldShrinkLimit() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(50, 5, 100, 2.0, 10);
+        for (int window = 0; window < 5; window++) {
+            saturate(limiter, 10 * MILLI);
+        }
+        int before = limiter.limit();
+
+        saturate(limiter, 100 * MILLI);
+
+        assertTrue(limiter.limit() < before, "limit " + limiter.limit() + " was " + before);
+        assertTrue(limiter.limit() >= 5);
+    }
+
+    @Test
+    void release_idleService_shouldKeepLimit() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(50, 5, 100, 2.0, 10);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(10 * MILLI);
+        }
+
+        assertEquals(50, limiter.limit());
+    }
+
+    /**
+     * Fills the limiter up to its limit and releases every request with the given latency.
+     */
+    private static void saturate(GradientConcurrencyLimiter limiter, long latencyNanos) {
+        int admitted = 0;
+        while (limiter.tryAcquire()) {
+            admitted++;
+        }
+        for (int i = 0; i < admitted; i++) {
+            limiter.release(latencyNanos);
+        }
+    }
+}
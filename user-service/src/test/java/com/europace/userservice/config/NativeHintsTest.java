@@ -0,0 +1,32 @@
+package com.europace.userservice.config;
+
+import com.europace.userservice.dto.AuthResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NativeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    NativeHintsTest() {
+        new NativeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void shouldRegisterJjwtImplementationClasses() {
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of("io.jsonwebtoken.impl.DefaultJwtBuilder")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of("io.jsonwebtoken.impl.security.KeysBridge")).test(hints));
+    }
+
+    @Test
+    void shouldRegisterResponseBodiesAndSchemaScript() throws NoSuchMethodException {
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(AuthResponse.class.getMethod("getToken")).test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("db/user-schema.sql").test(hints));
+    }
+}
@@ -5,8 +5,11 @@ import com.europace.userservice.dto.LoginRequest;
 import com.europace.userservice.dto.RegisterRequest;
 import com.europace.userservice.dto.TokenRequest;
 import com.europace.userservice.entity.User;
+import com.europace.userservice.service.AuthResult;
 import com.europace.userservice.service.JwtService;
+import com.europace.userservice.service.PasswordHasherBusyException;
 import com.europace.userservice.service.UserService;
+import com.europace.userservice.service.VerifiedUser;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,12 +18,18 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-@WebMvcTest(UserController.class)
+@WebMvcTest(controllers = UserController.class, properties = {"admission.enabled=false", "token.batch.max-size=3"})
 class UserControllerTest {
 
     @Autowired
@@ -65,14 +74,24 @@ class UserControllerTest {
                 .andExpect(status().isConflict());
     }
     
+    @Test
+    void register_usernameTooLong_shouldReturn400() throws Exception {
+        RegisterRequest request = new RegisterRequest("x".repeat(256), "password123");
+        
+        mockMvc.perform(post("/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+        
+        verifyNoInteractions(userService);
+    }
+    
     @Test
     void login_validCredentials_shouldReturn200WithToken() throws Exception {
         LoginRequest request = new LoginRequest("testuser", "password123");
-        User mockUser = new User("testuser", "password123");
-        mockUser.setId(1L);
         
-        when(userService.authenticateUser("testuser", "password123")).thenReturn("token123");
-        when(userService.findByUsername("testuser")).thenReturn(mockUser);
+        when(userService.authenticateUser("testuser", "password123"))
+                .thenReturn(new AuthResult("token123", 1L, "testuser"));
         
         mockMvc.perform(post("/login")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -95,13 +114,24 @@ class UserControllerTest {
                 .andExpect(status().isUnauthorized());
     }
     
+    @Test
+    void login_hasherSaturated_shouldReturn503() throws Exception {
+        LoginRequest request = new LoginRequest("testuser", "password123");
+        
+        when(userService.authenticateUser("testuser", "password123")).thenThrow(new PasswordHasherBusyException());
+        
+        mockMvc.perform(post("/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+    
     @Test
     void verifyToken_validToken_shouldReturn200() throws Exception {
         TokenRequest tokenRequest = new TokenRequest("valid.token.here");
-        User mockUser = new User("testuser", "password123");
-        mockUser.setId(1L);
         
-        when(userService.verifyToken("valid.token.here")).thenReturn(mockUser);
+        when(userService.verifyToken("valid.token.here")).thenReturn(new VerifiedUser(1L, "testuser"));
         
         mockMvc.perform(post("/token")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -124,4 +154,42 @@ class UserControllerTest {
                 .andExpect(status().isUnauthorized())
                 .andExpect(jsonPath("$.valid").value(false));
     }
+    
+    @Test
+    void verifyTokens_shouldReturnResultsInRequestOrder() throws Exception {
+        List<String> tokens = List.of("valid.token", "invalid.token");
+        
+        when(userService.verifyTokens(tokens)).thenReturn(Arrays.asList(new VerifiedUser(1L, "testuser"), null));
+        
+        mockMvc.perform(post("/token/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(tokens)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results.length()").value(2))
+                .andExpect(jsonPath("$.results[0].valid").value(true))
+                .andExpect(jsonPath("$.results[0].userId").value(1))
+                .andExpect(jsonPath("$.results[0].username").value("testuser"))
+                .andExpect(jsonPath("$.results[1].valid").value(false))
+                .andExpect(jsonPath("$.results[1].message").value("Invalid token"));
+    }
+    
+    @Test
+    void verifyTokens_emptyBatch_shouldReturn400() throws Exception {
+        mockMvc.perform(post("/token/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Collections.emptyList())))
+                .andExpect(status().isBadRequest());
+        
+        verifyNoInteractions(userService);
+    }
+    
+    @Test
+    void verifyTokens_oversizedBatch_shouldReturn413() throws Exception {
+        mockMvc.perform(post("/token/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of("a", "b", "c", "d"))))
+                .andExpect(status().isPayloadTooLarge());
+        
+        verifyNoInteractions(userService);
+    }
 }
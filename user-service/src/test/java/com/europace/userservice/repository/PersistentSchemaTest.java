@@ -0,0 +1,22 @@
+package com.europace.userservice.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * The persistent profile creates the schema from db/user-schema.sql instead of letting Hibernate generate it.
+ * Loading the context with ddl-auto=validate fails if the script and the entity mapping drift apart.
+ */
+@DataJpaTest
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.sql.init.mode=always",
+        "spring.sql.init.schema-locations=classpath:db/user-schema.sql"
+})
+class PersistentSchemaTest {
+
+    @Test
+    void schemaScriptMatchesEntityMapping() {
+    }
+}
@@ -1,9 +1,9 @@
 package com.europace.userservice.service;
 
 import com.europace.userservice.service.JwtService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.springframework.test.util.ReflectionTestUtils;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -13,9 +13,7 @@ class JwtServiceTest {
 
     @BeforeEach
     void setUp() {
-        jwtService = new JwtService();
-        ReflectionTestUtils.setField(jwtService, "secretKey", "mySecretKey123456789mySecretKey123456789");
-        ReflectionTestUtils.setField(jwtService, "expirationTime", 86400000L);
+        jwtService = new JwtService("mySecretKey123456789mySecretKey123456789", 86400000L, new SimpleMeterRegistry());
     }
 
     @Test
@@ -57,4 +55,46 @@ class JwtServiceTest {
 
         assertFalse(isValid);
     }
+
+    @Test
+    void shouldVerifyTokenInSinglePass() {
+        String token = jwtService.generateToken(123L);
+
+        VerifiedToken verified = jwtService.verify(token);
+
+        assertNotNull(verified);
+        assertEquals(123L, verified.getUserId());
+        assertNotNull(verified.getIssuedAt());
+        assertTrue(verified.getExpiresAt().isAfter(verified.getIssuedAt()));
+    }
+
+    @Test
+    void shouldRejectExpiredToken() {
+        JwtService expiredTokens = new JwtService("mySecretKey123456789mySecretKey123456789", -1000L, new SimpleMeterRegistry());
+        String token = expiredTokens.generateToken(123L);
+
+        assertNull(jwtService.verify(token));
+    }
+
+    @Test
+    void shouldRejectTokenSignedWithDifferentKey() {
+        JwtService otherService = new JwtService("otherSecretKey123456789otherSecretKey1234", 86400000L, new SimpleMeterRegistry());
+        String token = otherService.generateToken(123L);
+
+        assertNull(jwtService.verify(token));
+    }
+
+    @Test
+    void identify_shouldNotCountAsVerification() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        JwtService service = new JwtService("mySecretKey123456789mySecretKey123456789", 86400000L, registry);
+        String token = service.generateToken(123L);
+
+        assertEquals(123L, service.identify(token));
+        assertNull(service.identify("invalid.token.here"));
+        assertNull(service.identify(null));
+
+        assertEquals(0, registry.get("jwt.verification").tag("result", "valid").timer().count());
+        assertEquals(0, registry.get("jwt.verification").tag("result", "invalid").timer().count());
+    }
 }
@@ -0,0 +1,109 @@
+package com.europace.userservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHasherTest {
+
+    private PasswordHasher passwordHasher;
+
+    @BeforeEach
+    void setUp() {
+        passwordHasher = new PasswordHasher(PasswordHasher.MIN_COST, 100, 2, 16, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordHasher.shutdown();
+    }
+
+    @Test
+    void shouldMatchHashedPassword() {
+        String hash = passwordHasher.hash("password123");
+
+        assertNotEquals("password123", hash);
+        assertTrue(passwordHasher.matches("password123", hash));
+        assertFalse(passwordHasher.matches("wrong", hash));
+    }
+
+    @Test
+    void shouldMatchLegacyPlainTextPassword() {
+        assertTrue(passwordHasher.matches("password123", "password123"));
+        assertFalse(passwordHasher.matches("wrong", "password123"));
+        assertTrue(passwordHasher.needsRehash("password123"));
+    }
+
+    @Test
+    void shouldRequestRehashWhenCostRaised() {
+        String hash = passwordHasher.hash("password123");
+        PasswordHasher stronger = new PasswordHasher(PasswordHasher.MIN_COST + 1, 100, 1, 1, new SimpleMeterRegistry());
+
+        assertFalse(passwordHasher.needsRehash(hash));
+        assertTrue(stronger.needsRehash(hash));
+        assertTrue(stronger.matches("password123", hash));
+        stronger.shutdown();
+    }
+
+    @Test
+    void shouldKeepHashWithHigherCost() {
+        PasswordHasher stronger = new PasswordHasher(PasswordHasher.MIN_COST + 1, 100, 1, 1, new SimpleMeterRegistry());
+        String hash = stronger.hash("password123");
+
+        assertFalse(passwordHasher.needsRehash(hash));
+        assertTrue(passwordHasher.matches("password123", hash));
+        stronger.shutdown();
+    }
+
+    @Test
+    void shouldRejectWhenPoolAndQueueAreFull() throws InterruptedException {
+        PasswordHasher saturated = new PasswordHasher(12, 100, 1, 1, new SimpleMeterRegistry());
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<String>> calls = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            calls.add(CompletableFuture.supplyAsync(() -> {
+                awaitQuietly(start);
+                return saturated.hash("password123");
+            }));
+        }
+        start.countDown();
+
+        long rejected = calls.stream().filter(call -> {
+            try {
+                call.get();
+                return false;
+            } catch (ExecutionException e) {
+                return e.getCause() instanceof PasswordHasherBusyException;
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        }).count();
+
+        assertTrue(rejected >= 1);
+        saturated.shutdown();
+    }
+
+    @Test
+    void shouldTuneCostWithinBounds() {
+        int cost = PasswordHasher.tuneCost(1);
+
+        assertEquals(PasswordHasher.MIN_TUNED_COST, cost);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
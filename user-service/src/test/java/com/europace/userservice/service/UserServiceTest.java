@@ -4,12 +4,19 @@ import com.europace.userservice.entity.User;
 import com.europace.userservice.repository.UserRepository;
 import com.europace.userservice.service.JwtService;
 import com.europace.userservice.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.exception.DataException;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -24,13 +31,26 @@ class UserServiceTest {
     @Mock
     private JwtService jwtService;
     
-    @InjectMocks
+    @Mock
+    private PasswordHasher passwordHasher;
+    
+    @Mock
+    private UsernameFilter usernameFilter;
+    
+    @Mock
+    private UsernameCache usernameCache;
+    
     private UserService userService;
     
+    @BeforeEach
+    void setUp() {
+        userService = new UserService(userRepository, jwtService, passwordHasher, usernameFilter, usernameCache, new SimpleMeterRegistry());
+    }
+    
     @Test
-    void registerUser_newUser_shouldReturnUser() {
-        when(userRepository.existsByUsername("newuser")).thenReturn(false);
-        when(userRepository.save(any(User.class))).thenAnswer(invocation -> {
+    void registerUser_newUser_shouldStoreHashedPassword() {
+        when(passwordHasher.hash("password123")).thenReturn("hashed");
+        when(userRepository.saveAndFlush(any(User.class))).thenAnswer(invocation -> {
             User user = invocation.getArgument(0);
             user.setId(1L);
             return user;
@@ -40,71 +60,183 @@ class UserServiceTest {
         
         assertNotNull(result);
         assertEquals("newuser", result.getUsername());
-        assertEquals("password123", result.getPassword());
-        verify(userRepository).save(any(User.class));
+        assertEquals("hashed", result.getPassword());
+        verify(userRepository).saveAndFlush(any(User.class));
+        verify(usernameFilter).add("newuser");
+        verify(usernameCache).put(1L, "newuser");
     }
     
     @Test
     void registerUser_existingUser_shouldReturnNull() {
-        when(userRepository.existsByUsername("existing")).thenReturn(true);
+        when(passwordHasher.hash("password123")).thenReturn("hashed");
+        when(userRepository.saveAndFlush(any(User.class)))
+                .thenThrow(new DataIntegrityViolationException("could not execute statement",
+                        new ConstraintViolationException("could not execute statement", null,
+                                "PUBLIC.UK_USERS_USERNAME_INDEX_4")));
         
         User result = userService.registerUser("existing", "password123");
         
         assertNull(result);
-        verify(userRepository, never()).save(any(User.class));
+        verify(usernameFilter, never()).add(anyString());
     }
     
     @Test
-    void authenticateUser_validCredentials_shouldReturnToken() {
+    void registerUser_otherIntegrityViolation_shouldBeRethrown() {
+        when(passwordHasher.hash("password123")).thenReturn("hashed");
+        DataIntegrityViolationException tooLong = new DataIntegrityViolationException("could not execute statement",
+                new DataException("Value too long for column \"USERNAME CHARACTER VARYING(255)\"", null));
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(tooLong);
+        
+        assertSame(tooLong, assertThrows(DataIntegrityViolationException.class,
+                () -> userService.registerUser("x".repeat(256), "password123")));
+        verify(usernameFilter, never()).add(anyString());
+    }
+    
+    @Test
+    void authenticateUser_validCredentials_shouldReturnTokenAndUser() {
         User user = new User("testuser", "password123");
         user.setId(123L);
+        when(usernameFilter.mightContain("testuser")).thenReturn(true);
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(passwordHasher.matches("password123", "password123")).thenReturn(true);
+        when(passwordHasher.needsRehash("password123")).thenReturn(false);
+        when(jwtService.generateToken(123L)).thenReturn("token123");
+        
+        AuthResult result = userService.authenticateUser("testuser", "password123");
+        
+        assertNotNull(result);
+        assertEquals("token123", result.getToken());
+        assertEquals(123L, result.getUserId());
+        assertEquals("testuser", result.getUsername());
+        verify(userRepository, times(1)).findByUsername("testuser");
+        verify(userRepository, never()).save(any(User.class));
+    }
+    
+    @Test
+    void authenticateUser_outdatedHash_shouldRehashPassword() {
+        User user = new User("testuser", "legacy");
+        user.setId(123L);
+        when(usernameFilter.mightContain("testuser")).thenReturn(true);
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(passwordHasher.matches("password123", "legacy")).thenReturn(true);
+        when(passwordHasher.needsRehash("legacy")).thenReturn(true);
+        when(passwordHasher.hash("password123")).thenReturn("rehashed");
+        when(jwtService.generateToken(123L)).thenReturn("token123");
+        
+        AuthResult result = userService.authenticateUser("testuser", "password123");
+        
+        assertNotNull(result);
+        assertEquals("rehashed", user.getPassword());
+        verify(userRepository).save(user);
+    }
+    
+    @Test
+    void authenticateUser_hasherBusyDuringRehash_shouldStillLogIn() {
+        User user = new User("testuser", "legacy");
+        user.setId(123L);
+        when(usernameFilter.mightContain("testuser")).thenReturn(true);
         when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(passwordHasher.matches("password123", "legacy")).thenReturn(true);
+        when(passwordHasher.needsRehash("legacy")).thenReturn(true);
+        when(passwordHasher.hash("password123")).thenThrow(new PasswordHasherBusyException());
         when(jwtService.generateToken(123L)).thenReturn("token123");
         
-        String token = userService.authenticateUser("testuser", "password123");
+        AuthResult result = userService.authenticateUser("testuser", "password123");
         
-        assertEquals("token123", token);
+        assertNotNull(result);
+        assertEquals("legacy", user.getPassword());
+        verify(userRepository, never()).save(any(User.class));
     }
     
     @Test
     void authenticateUser_wrongPassword_shouldReturnNull() {
         User user = new User("testuser", "password123");
+        when(usernameFilter.mightContain("testuser")).thenReturn(true);
         when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(passwordHasher.matches("wrongpassword", "password123")).thenReturn(false);
         
-        String token = userService.authenticateUser("testuser", "wrongpassword");
+        AuthResult result = userService.authenticateUser("testuser", "wrongpassword");
         
-        assertNull(token);
+        assertNull(result);
     }
     
     @Test
     void authenticateUser_userNotFound_shouldReturnNull() {
+        when(usernameFilter.mightContain("nonexistent")).thenReturn(true);
         when(userRepository.findByUsername("nonexistent")).thenReturn(Optional.empty());
         
-        String token = userService.authenticateUser("nonexistent", "password123");
+        AuthResult result = userService.authenticateUser("nonexistent", "password123");
         
-        assertNull(token);
+        assertNull(result);
+    }
+    
+    @Test
+    void authenticateUser_filteredUnknownUser_shouldReturnNullWithoutQuery() {
+        when(usernameFilter.mightContain("nonexistent")).thenReturn(false);
+        
+        AuthResult result = userService.authenticateUser("nonexistent", "password123");
+        
+        assertNull(result);
+        verifyNoInteractions(userRepository, passwordHasher);
     }
     
     @Test
     void verifyToken_validToken_shouldReturnUser() {
-        when(jwtService.validateToken("valid.token")).thenReturn(true);
-        when(jwtService.extractUserId("valid.token")).thenReturn(123L);
-        User user = new User("testuser", "password123");
-        user.setId(123L);
-        when(userRepository.findById(123L)).thenReturn(Optional.of(user));
+        when(jwtService.verify("valid.token")).thenReturn(new VerifiedToken(123L, null, null));
+        when(usernameCache.get(123L)).thenReturn("testuser");
         
-        User result = userService.verifyToken("valid.token");
+        VerifiedUser result = userService.verifyToken("valid.token");
         
         assertNotNull(result);
+        assertEquals(123L, result.getUserId());
         assertEquals("testuser", result.getUsername());
     }
     
     @Test
     void verifyToken_invalidToken_shouldReturnNull() {
-        when(jwtService.validateToken("invalid.token")).thenReturn(false);
+        when(jwtService.verify("invalid.token")).thenReturn(null);
         
-        User result = userService.verifyToken("invalid.token");
+        VerifiedUser result = userService.verifyToken("invalid.token");
         
         assertNull(result);
+        verifyNoInteractions(usernameCache);
+    }
+    
+    @Test
+    void verifyToken_unknownUser_shouldReturnNull() {
+        when(jwtService.verify("orphan.token")).thenReturn(new VerifiedToken(404L, null, null));
+        when(usernameCache.get(404L)).thenReturn(null);
+        
+        assertNull(userService.verifyToken("orphan.token"));
+    }
+    
+    @Test
+    void verifyTokens_shouldLookUpUsersOnceAndKeepRequestOrder() {
+        when(jwtService.verify("token.a")).thenReturn(new VerifiedToken(1L, null, null));
+        when(jwtService.verify("invalid.token")).thenReturn(null);
+        when(jwtService.verify("token.b")).thenReturn(new VerifiedToken(2L, null, null));
+        when(jwtService.verify("orphan.token")).thenReturn(new VerifiedToken(404L, null, null));
+        when(usernameCache.getAll(List.of(1L, 2L, 404L, 1L))).thenReturn(Map.of(1L, "alice", 2L, "bob"));
+        
+        List<VerifiedUser> results = userService.verifyTokens(
+                List.of("token.a", "invalid.token", "token.b", "orphan.token", "token.a"));
+        
+        assertEquals(5, results.size());
+        assertEquals("alice", results.get(0).getUsername());
+        assertNull(results.get(1));
+        assertEquals(2L, results.get(2).getUserId());
+        assertEquals("bob", results.get(2).getUsername());
+        assertNull(results.get(3));
+        assertEquals("alice", results.get(4).getUsername());
+        verify(usernameCache).getAll(anyList());
+        verifyNoInteractions(userRepository);
+    }
+    
+    @Test
+    void verifyTokens_onlyInvalidTokens_shouldNotLookUpUsers() {
+        List<VerifiedUser> results = userService.verifyTokens(Arrays.asList("invalid.token", null));
+        
+        assertEquals(Arrays.asList(null, null), results);
+        verifyNoInteractions(usernameCache);
     }
 }
@@ -0,0 +1,81 @@
+package com.europace.userservice.service;
+
+import com.europace.userservice.entity.User;
+import com.europace.userservice.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UsernameCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Test
+    void shouldQueryEachUserOnlyOnce() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user(1L, "alice")));
+        UsernameCache cache = new UsernameCache(userRepository, 100);
+
+        assertEquals("alice", cache.get(1L));
+        assertEquals("alice", cache.get(1L));
+
+        verify(userRepository, times(1)).findById(1L);
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.missCount());
+    }
+
+    @Test
+    void shouldNotCacheUnknownUsers() {
+        when(userRepository.findById(404L)).thenReturn(Optional.empty());
+        UsernameCache cache = new UsernameCache(userRepository, 100);
+
+        assertNull(cache.get(404L));
+        assertNull(cache.get(404L));
+
+        verify(userRepository, times(2)).findById(404L);
+    }
+
+    @Test
+    void shouldServeRegisteredUsersWithoutQuery() {
+        UsernameCache cache = new UsernameCache(userRepository, 100);
+
+        cache.put(1L, "alice");
+
+        assertEquals("alice", cache.get(1L));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void getAll_shouldQueryOnlyMissingUsersInOneCall() {
+        UsernameCache cache = new UsernameCache(userRepository, 100);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+        cache.put(1L, "alice");
+        when(userRepository.findAllById(anyIterable())).thenReturn(List.of(user(2L, "bob")));
+
+        Map<Long, String> usernames = cache.getAll(List.of(1L, 2L, 404L, 2L));
+
+        assertEquals(Map.of(1L, "alice", 2L, "bob"), usernames);
+        verify(userRepository).findAllById(argThat(ids -> ids instanceof List<?> list
+                && list.size() == 2 && list.containsAll(List.of(2L, 404L))));
+        assertEquals(1.0, registry.get("users.usernames.bulk.hits").summary().totalAmount());
+        assertEquals(Map.of(2L, "bob"), cache.getAll(List.of(2L)));
+        verifyNoMoreInteractions(userRepository);
+    }
+
+    private static User user(long id, String username) {
+        User user = new User(username, "hashed");
+        user.setId(id);
+        return user;
+    }
+}
@@ -0,0 +1,55 @@
+package com.europace.userservice.service;
+
+import com.europace.userservice.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UsernameFilterTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Test
+    void shouldReportEveryUsernameUntilLoaded() {
+        UsernameFilter filter = new UsernameFilter(userRepository, true, 1_000, 0.01);
+
+        assertTrue(filter.mightContain("nobody"));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void shouldRejectUnknownUsernamesOnceLoaded() {
+        when(userRepository.streamAllUsernames()).thenReturn(Stream.of("alice", "bob"));
+        UsernameFilter filter = new UsernameFilter(userRepository, true, 1_000, 0.01);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        filter.bindTo(registry);
+
+        filter.load();
+        filter.add("carol");
+
+        assertTrue(filter.mightContain("alice"));
+        assertTrue(filter.mightContain("bob"));
+        assertTrue(filter.mightContain("carol"));
+        assertFalse(filter.mightContain("mallory"));
+        assertEquals(1.0, registry.get("username.filter.misses").counter().count());
+    }
+
+    @Test
+    void shouldPassEverythingWhenDisabled() {
+        UsernameFilter filter = new UsernameFilter(userRepository, false, 1_000, 0.01);
+
+        filter.load();
+
+        assertTrue(filter.mightContain("mallory"));
+        verifyNoInteractions(userRepository);
+    }
+}
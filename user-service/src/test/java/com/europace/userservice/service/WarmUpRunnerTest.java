@@ -0,0 +1,60 @@
+package com.europace.userservice.service;
+
+import com.europace.userservice.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WarmUpRunnerTest {
+
+    private static final String SECRET = "mySecretKey123456789mySecretKey123456789";
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Test
+    void shouldDoNothingWhenDisabled() {
+        runner(false, 10, 30_000, 86400000L).run(null);
+
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void shouldRunTheConfiguredIterations() {
+        when(userRepository.findByUsername(startsWith("warm-up-"))).thenReturn(Optional.empty());
+
+        runner(true, 5, 30_000, 86400000L).run(null);
+
+        verify(userRepository, times(5)).findByUsername(startsWith("warm-up-"));
+    }
+
+    @Test
+    void shouldStopWhenTheDurationIsUsedUp() {
+        runner(true, 1_000_000, 0, 86400000L).run(null);
+
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void shouldStopWithoutFailingStartupWhenTheTokenIsRejected() {
+        // Tokens that are expired when issued fail verification
+        assertDoesNotThrow(() -> runner(true, 5, 30_000, -60_000L).run(null));
+
+        verify(userRepository, times(1)).findByUsername("warm-up-0");
+    }
+
+    private WarmUpRunner runner(boolean enabled, int iterations, long maxDurationMs, long tokenExpiration) {
+        JwtService jwtService = new JwtService(SECRET, tokenExpiration, new SimpleMeterRegistry());
+        return new WarmUpRunner(enabled, iterations, maxDurationMs, jwtService, userRepository, new ObjectMapper());
+    }
+}